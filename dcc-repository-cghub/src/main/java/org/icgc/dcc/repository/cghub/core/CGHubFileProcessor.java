@@ -154,12 +154,7 @@ public class CGHubFileProcessor extends RepositoryFileProcessor {
         .setLastModified(resolveLastModified(result))
         .setRepoDataBundleId(analysisId)
         .setRepoFileId(null) // GNOS does not have individual file ids
-        .setRepoType(cghubRepository.getType().getId())
-        .setRepoOrg(cghubRepository.getSource().getId())
-        .setRepoName(cghubRepository.getName())
-        .setRepoCode(cghubRepository.getCode())
-        .setRepoCountry(cghubRepository.getCountry())
-        .setRepoBaseUrl(cghubRepository.getBaseUrl())
+        .setRepository(cghubRepository)
         .setRepoMetadataPath(cghubRepository.getType().getMetadataPath())
         .setRepoDataPath(cghubRepository.getType().getDataPath());
 
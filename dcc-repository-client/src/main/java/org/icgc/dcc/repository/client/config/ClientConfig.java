@@ -23,11 +23,15 @@ import org.icgc.dcc.repository.client.core.RepositoryImporter;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositoryFileContextBuilder;
 import org.icgc.dcc.repository.core.util.DCCDonorIdResolver;
+import org.icgc.dcc.repository.core.util.MongoClientRegistry;
 import org.icgc.dcc.repository.pcawg.core.PCAWGDonorIdResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
 
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+
 import lombok.val;
 
 @Configuration
@@ -54,6 +58,9 @@ public class ClientConfig {
   public RepositoryFileContext context(ClientProperties properties) {
     val context = RepositoryFileContextBuilder.builder();
 
+    // Shared by all Mongo components
+    val connectionsPerHost = properties.getRepository().getMongoConnectionsPerHost();
+
     // Inputs
     context
         .sources(properties.getRepository().getSources());
@@ -68,13 +75,24 @@ public class ClientConfig {
     context
         .pcawgIdResolver(new PCAWGDonorIdResolver())
         .dccIdResolver(new DCCDonorIdResolver())
-        .importMongoUri(properties.getImports().getMongoUri());
+        .importMongoUri(configureMongoUri(properties.getImports().getMongoUri(), connectionsPerHost));
+
+    // Caches
+    context
+        .cacheDir(properties.getRepository().getCacheDir());
 
     // Outputs
     context
-        .repoMongoUri(properties.getRepository().getMongoUri())
+        .repoMongoUri(configureMongoUri(properties.getRepository().getMongoUri(), connectionsPerHost))
         .esUri(properties.getRepository().getEsUri())
         .archiveUri(properties.getRepository().getArchiveUri())
+        .archiveAsync(properties.getRepository().isArchiveAsync())
+        .archiveQueueSize(properties.getRepository().getArchiveQueueSize())
+        .archiveCompressionThreads(properties.getRepository().getArchiveCompressionThreads())
+        .indexIncremental(properties.getRepository().isIndexIncremental())
+        .indexBatchSize(properties.getRepository().getIndexBatchSize())
+        .indexScanThreads(properties.getRepository().getIndexScanThreads())
+        .collectThreads(properties.getRepository().getCollectThreads())
         .indexAlias(properties.getRepository().getIndexAlias());
 
     // Reporting
@@ -84,4 +102,17 @@ public class ClientConfig {
     return context.build();
   }
 
+  /**
+   * Pool options given in the URI itself take precedence.
+   *
+   * @see MongoClientRegistry
+   */
+  private static MongoClientURI configureMongoUri(MongoClientURI mongoUri, int connectionsPerHost) {
+    if (mongoUri == null) {
+      return null;
+    }
+
+    return new MongoClientURI(mongoUri.getURI(), MongoClientOptions.builder().connectionsPerHost(connectionsPerHost));
+  }
+
 }
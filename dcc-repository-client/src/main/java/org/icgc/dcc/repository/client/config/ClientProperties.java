@@ -17,6 +17,7 @@
  */
 package org.icgc.dcc.repository.client.config;
 
+import java.io.File;
 import java.net.URI;
 import java.util.Set;
 
@@ -26,7 +27,10 @@ import org.hibernate.validator.constraints.URL;
 import org.icgc.dcc.repository.client.core.RepositoryImporter;
 import org.icgc.dcc.repository.client.core.RepositoryImporter.Step;
 import org.icgc.dcc.repository.client.util.MongoURI;
+import org.icgc.dcc.repository.core.RepositoryFileContextBuilder;
 import org.icgc.dcc.repository.core.model.RepositorySource;
+import org.icgc.dcc.repository.core.util.MongoClientRegistry;
+import org.icgc.dcc.repository.core.util.PartitionedCollectionScanner;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -58,6 +62,15 @@ public class ClientProperties {
     MongoClientURI mongoUri;
     URI esUri;
     URI archiveUri;
+    File cacheDir = RepositoryFileContextBuilder.DEFAULT_CACHE_DIR;
+    boolean archiveAsync = RepositoryFileContextBuilder.DEFAULT_ARCHIVE_ASYNC;
+    int archiveQueueSize = RepositoryFileContextBuilder.DEFAULT_ARCHIVE_QUEUE_SIZE;
+    int archiveCompressionThreads = RepositoryFileContextBuilder.DEFAULT_ARCHIVE_COMPRESSION_THREADS;
+    boolean indexIncremental = false;
+    int indexBatchSize = PartitionedCollectionScanner.DEFAULT_BATCH_SIZE;
+    int indexScanThreads = PartitionedCollectionScanner.DEFAULT_THREAD_COUNT;
+    int collectThreads = PartitionedCollectionScanner.DEFAULT_THREAD_COUNT;
+    int mongoConnectionsPerHost = MongoClientRegistry.DEFAULT_CONNECTIONS_PER_HOST;
     String indexAlias;
 
     public Set<RepositoryImporter.Step> getSteps() {
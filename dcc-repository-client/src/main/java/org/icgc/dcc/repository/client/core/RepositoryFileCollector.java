@@ -56,9 +56,8 @@ public class RepositoryFileCollector {
     // once.
     val files = HashMultimap.<String, RepositoryFile> create();
     for (val reader : readers) {
-      for (val file : reader.read()) {
-        files.put(file.getId(), file);
-      }
+      // Unmarshalling dominates so read in parallel
+      reader.read(context.getCollectThreads(), file -> files.put(file.getId(), file));
     }
 
     return files;
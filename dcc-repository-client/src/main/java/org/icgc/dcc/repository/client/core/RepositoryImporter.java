@@ -72,11 +72,16 @@ public class RepositoryImporter {
 
     IMPORT,
     MERGE,
-    INDEX;
+    INDEX,
+
+    /**
+     * Rebuilds the index from a bulk archive. Must be explicitly requested and is not part of {@link #all()}.
+     */
+    RESTORE;
 
     @Getter(lazy = true)
     @Accessors(fluent = true)
-    private static final Set<Step> all = ImmutableSet.copyOf(values());
+    private static final Set<Step> all = ImmutableSet.of(IMPORT, MERGE, INDEX);
 
   }
 
@@ -152,6 +157,15 @@ public class RepositoryImporter {
         logStep(stepNumber++, stepCount, "Indexing files");
         indexFiles();
       }
+
+      //
+      // Restore
+      //
+
+      if (steps.contains(Step.RESTORE)) {
+        logStep(stepNumber++, stepCount, "Restoring index");
+        restoreFiles();
+      }
     } catch (Exception e) {
       reportException("Unknown exception processing", e);
     } finally {
@@ -219,7 +233,24 @@ public class RepositoryImporter {
         context.getMongoUri(), context.getEsUri(), context.getArchiveUri(),
         context.getIndexAlias());
 
-    indexer.indexFiles();
+    indexer
+        .archiveAsync(context.isArchiveAsync())
+        .archiveQueueSize(context.getArchiveQueueSize())
+        .archiveCompressionThreads(context.getArchiveCompressionThreads())
+        .incremental(context.isIndexIncremental())
+        .batchSize(context.getIndexBatchSize())
+        .scanThreads(context.getIndexScanThreads())
+        .indexFiles();
+  }
+
+  @SneakyThrows
+  private void restoreFiles() {
+    @Cleanup
+    val indexer = new RepositoryFileIndexer(
+        context.getMongoUri(), context.getEsUri(), context.getArchiveUri(),
+        context.getIndexAlias());
+
+    indexer.restoreFiles();
   }
 
   private void report(Stopwatch watch) {
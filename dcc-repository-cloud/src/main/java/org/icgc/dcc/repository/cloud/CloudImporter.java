@@ -30,7 +30,6 @@ import org.icgc.dcc.repository.core.model.RepositorySource;
 import org.icgc.dcc.repository.core.util.GenericRepositorySourceFileImporter;
 import org.slf4j.Logger;
 
-import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import lombok.NonNull;
@@ -48,12 +47,8 @@ public abstract class CloudImporter extends GenericRepositorySourceFileImporter
     val completedJobs = readCompletedJobs();
     log.info("Read {} completed transfer jobs", formatCount(completedJobs));
 
-    log.info("Reading object summaries...");
-    val objectSummaries = readObjectSummaries();
-    log.info("Read {} object summaries", formatCount(objectSummaries));
-
     log.info("Processing files...");
-    val files = processFiles(completedJobs, objectSummaries);
+    val files = processFiles(completedJobs);
     log.info("Processed {} files", formatCount(files));
 
     return files;
@@ -64,14 +59,11 @@ public abstract class CloudImporter extends GenericRepositorySourceFileImporter
     return jobReader.readJobs();
   }
 
-  private List<S3ObjectSummary> readObjectSummaries() {
+  private Iterable<RepositoryFile> processFiles(List<ObjectNode> completedJobs) {
+    // Object summaries are streamed through the completed jobs rather than read up front
     val bucketReader = createBucketReader();
-    return bucketReader.readSummaries();
-  }
-
-  private Iterable<RepositoryFile> processFiles(List<ObjectNode> completedJobs, List<S3ObjectSummary> objectSummaries) {
     val fileProcessor = createFileProcessor();
-    return fileProcessor.processCompletedJobs(completedJobs, objectSummaries);
+    return fileProcessor.processCompletedJobs(completedJobs, bucketReader);
   }
 
   /**
@@ -28,27 +28,32 @@ import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getFiles;
 import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getGnosId;
 import static org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs.getObjectId;
 import static org.icgc.dcc.repository.cloud.util.S3Objects.getObjectId;
+import static org.icgc.dcc.repository.cloud.util.S3Objects.isObjectId;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.icgc.dcc.repository.cloud.s3.CloudS3BucketReader;
+import org.icgc.dcc.repository.cloud.transfer.CloudTransferJobs;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositoryFileProcessor;
 import org.icgc.dcc.repository.core.model.Repository;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.model.RepositoryFile.FileAccess;
 import org.icgc.dcc.repository.core.model.RepositoryFile.FileFormat;
+import org.icgc.dcc.repository.core.util.FileNameIndex;
 
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 
 import lombok.NonNull;
+import lombok.Value;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
@@ -65,42 +70,47 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
     this.repository = repository;
   }
 
+  /**
+   * Joins {@code completedJobs} with the object summaries listed by {@code bucketReader}.
+   * <p>
+   * Only the object ids referenced by the jobs are indexed. The listing is streamed through that index so summaries of
+   * unreferenced objects are never retained.
+   */
   public Iterable<RepositoryFile> processCompletedJobs(@NonNull List<ObjectNode> completedJobs,
-      @NonNull Iterable<S3ObjectSummary> objectSummaries) {
-    log.info("Indexing object summaries...");
-    val objectSummaryIndex = indexObjectSummaries(objectSummaries);
-    log.info("Finished indexing {} object summaries...", formatCount(objectSummaries));
+      @NonNull CloudS3BucketReader bucketReader) {
+    val join = indexCompletedJobs(completedJobs);
 
-    log.info("Creating object files...");
-    val objectFiles = createObjectFiles(completedJobs, objectSummaryIndex);
-    log.info("Finished creating {} object files", formatCount(objectFiles));
+    log.info("Streaming object summaries...");
+    val summaryCount = bucketReader.readSummaries(join::accept);
+    log.info("Finished streaming {} object summaries", formatCount(summaryCount));
 
-    return objectFiles;
+    return join.finish();
   }
 
-  private Iterable<RepositoryFile> createObjectFiles(List<ObjectNode> completedJobs,
-      Map<String, S3ObjectSummary> objectSummaryIndex) {
-    val objectFiles = ImmutableList.<RepositoryFile> builder();
+  public Iterable<RepositoryFile> processCompletedJobs(@NonNull List<ObjectNode> completedJobs,
+      @NonNull Iterable<S3ObjectSummary> objectSummaries) {
+    val join = indexCompletedJobs(completedJobs);
+    objectSummaries.forEach(join::accept);
+
+    return join.finish();
+  }
+
+  private ObjectFileJoin indexCompletedJobs(List<ObjectNode> completedJobs) {
+    log.info("Indexing completed job objects...");
+    val join = new ObjectFileJoin();
     for (val completedJob : completedJobs) {
+      val fileIndex = indexFiles(completedJob);
       for (val file : resolveIncludedFiles(completedJob)) {
-        val objectId = getObjectId(file);
-        val objectSummary = objectSummaryIndex.get(objectId);
-        if (objectSummary == null) {
-          context.reportWarning("Missing object summary for object id %s and completed job %s", objectId,
-              completedJob.path("_runs_"));
-          continue;
-        }
-
-        // Join completed job and object summary
-        val objectFile = createObjectFile(completedJob, file, objectSummary);
-        objectFiles.add(objectFile);
+        join.reference(new ObjectReference(completedJob, fileIndex, file));
       }
     }
+    log.info("Finished indexing {} completed job objects", formatCount(join.references.size()));
 
-    return objectFiles.build();
+    return join;
   }
 
-  private RepositoryFile createObjectFile(ObjectNode job, JsonNode file, S3ObjectSummary objectSummary) {
+  private RepositoryFile createObjectFile(ObjectNode job, FileNameIndex<JsonNode> fileIndex, JsonNode file,
+      S3ObjectSummary objectSummary) {
     log.debug("Processing bucket entry: {}", format("%-50s %10d %s",
         objectSummary.getKey(), objectSummary.getSize(), objectSummary.getStorageClass()));
 
@@ -111,10 +121,10 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
     val objectId = getObjectId(file);
     val gnosId = getGnosId(job);
     val fileName = getFileName(file);
-    val xmlFile = resolveXmlFile(job, gnosId);
-    val baiFile = resolveBaiFile(job, fileName);
-    val tbiFile = resolveTbiFile(job, fileName);
-    val idxFile = resolveIdxFile(job, fileName);
+    val xmlFile = fileIndex.getCompanion(gnosId, ".xml");
+    val baiFile = fileIndex.getCompanion(fileName, ".bai");
+    val tbiFile = fileIndex.getCompanion(fileName, ".tbi");
+    val idxFile = fileIndex.getCompanion(fileName, ".idx");
 
     //
     // Create
@@ -133,12 +143,7 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
         .setLastModified(objectSummary.getLastModified().getTime() / 1000L) // Seconds
         .setRepoDataBundleId(gnosId)
         .setRepoFileId(objectId)
-        .setRepoType(repository.getType().getId())
-        .setRepoOrg(repository.getSource().getId())
-        .setRepoName(repository.getName())
-        .setRepoCode(repository.getCode())
-        .setRepoCountry(repository.getCountry())
-        .setRepoBaseUrl(repository.getBaseUrl())
+        .setRepository(repository)
         .setRepoDataPath(repository.getType().getDataPath() + "/" + objectId);
 
     if (xmlFile.isPresent()) {
@@ -211,32 +216,78 @@ public class CloudFileProcessor extends RepositoryFileProcessor {
     return getFileName(file).toLowerCase().endsWith(fileType.toLowerCase());
   }
 
-  private static Optional<JsonNode> resolveBaiFile(ObjectNode job, String fileName) {
-    return resolveFile(job, fileName + ".bai");
+  private static FileNameIndex<JsonNode> indexFiles(ObjectNode job) {
+    return FileNameIndex.index(getFiles(job), CloudTransferJobs::getFileName);
   }
 
-  private static Optional<JsonNode> resolveTbiFile(ObjectNode job, String fileName) {
-    return resolveFile(job, fileName + ".tbi");
+  private static Stream<JsonNode> resolveFiles(ObjectNode job, Predicate<? super JsonNode> filter) {
+    return stream(getFiles(job)).filter(filter);
   }
 
-  private static Optional<JsonNode> resolveIdxFile(ObjectNode job, String fileName) {
-    return resolveFile(job, fileName + ".idx");
+  private static UUID parseObjectId(String objectId) {
+    return isObjectId(objectId) ? UUID.fromString(objectId) : null;
   }
 
-  private static Optional<JsonNode> resolveXmlFile(ObjectNode job, String gnosId) {
-    return resolveFile(job, gnosId + ".xml");
-  }
+  /**
+   * Completed job objects keyed by their id, awaiting their object summary.
+   */
+  private class ObjectFileJoin {
+
+    /**
+     * State.
+     */
+    final Multimap<UUID, ObjectReference> references = ArrayListMultimap.create();
+    final ImmutableList.Builder<RepositoryFile> objectFiles = ImmutableList.builder();
+    int objectFileCount;
+
+    void reference(ObjectReference reference) {
+      val objectId = getObjectId(reference.getFile());
+      val key = parseObjectId(objectId);
+      if (key == null) {
+        reportMissing(objectId, reference);
+      } else {
+        references.put(key, reference);
+      }
+    }
 
-  private static Optional<JsonNode> resolveFile(ObjectNode job, String fileName) {
-    return resolveFiles(job, file -> fileName.equals(getFileName(file))).findFirst();
-  }
+    void accept(S3ObjectSummary objectSummary) {
+      val key = parseObjectId(getObjectId(objectSummary));
+      if (key == null) {
+        return;
+      }
+
+      // Removing on match keeps the first summary of an object listed in more than one partition
+      for (val reference : references.removeAll(key)) {
+        // Join completed job and object summary
+        objectFiles.add(createObjectFile(reference.getJob(), reference.getFileIndex(), reference.getFile(),
+            objectSummary));
+        objectFileCount++;
+      }
+    }
+
+    Iterable<RepositoryFile> finish() {
+      for (val entry : references.entries()) {
+        reportMissing(entry.getKey().toString(), entry.getValue());
+      }
+
+      log.info("Finished creating {} object files", formatCount(objectFileCount));
+      return objectFiles.build();
+    }
+
+    private void reportMissing(String objectId, ObjectReference reference) {
+      context.reportWarning("Missing object summary for object id %s and completed job %s", objectId,
+          reference.getJob().path("_runs_"));
+    }
 
-  private static Stream<JsonNode> resolveFiles(ObjectNode job, Predicate<? super JsonNode> filter) {
-    return stream(getFiles(job)).filter(filter);
   }
 
-  private static Map<String, S3ObjectSummary> indexObjectSummaries(Iterable<S3ObjectSummary> objectSummaries) {
-    return Maps.uniqueIndex(objectSummaries, objectSummary -> getObjectId(objectSummary));
+  @Value
+  private static class ObjectReference {
+
+    ObjectNode job;
+    FileNameIndex<JsonNode> fileIndex;
+    JsonNode file;
+
   }
 
 }
@@ -17,10 +17,17 @@
  */
 package org.icgc.dcc.repository.cloud.s3;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Stopwatch.createStarted;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.repository.cloud.util.S3Objects.isObject;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
@@ -31,16 +38,39 @@ import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.Value;
 import lombok.val;
+import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Reads the object summaries of all partitions of a bucket.
+ * <p>
+ * When {@code threadCount > 1}, each partition is split into contiguous key ranges at the hex digits following the
+ * prefix (object ids are UUIDs) and the ranges are listed concurrently. Ranges are bounded by listing markers rather
+ * than key prefixes so keys outside the expected layout are still read exactly once. Each range buffers its pages in
+ * a bounded queue and the queues are drained on the calling thread in range order, so the consumer need not be thread
+ * safe and sees summaries in the same order as a sequential read.
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class CloudS3BucketReader {
 
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_THREAD_COUNT = 16;
+  public static final int DEFAULT_QUEUE_SIZE = 100;
+  private static final String SHARD_BOUNDARIES = "123456789abcdef";
+  private static final Object END_OF_SHARD = new Object();
+
   /**
    * Configuration.
    */
@@ -48,6 +78,12 @@ public class CloudS3BucketReader {
   private final String bucketName;
   @NonNull
   protected final String prefix;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int threadCount = 1;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int queueSize = DEFAULT_QUEUE_SIZE;
 
   /**
    * Dependencies.
@@ -57,44 +93,181 @@ public class CloudS3BucketReader {
 
   public List<S3ObjectSummary> readSummaries() {
     val objectSummaries = ImmutableList.<S3ObjectSummary> builder();
+    readSummaries(objectSummaries::add);
 
-    // For all bucket partitions
-    for (val bucketName : getBucketNames()) {
-      readBucket(bucketName, prefix, (objectSummary) -> {
-        if (isObject(objectSummary)) {
-          objectSummaries.add(objectSummary);
-        }
-      });
+    return objectSummaries.build();
+  }
+
+  /**
+   * Reads the object summaries of all bucket partitions into a compact store rather than retaining the summaries.
+   */
+  public S3ObjectSummaryStore readSummaryStore() {
+    val objectSummaries = new S3ObjectSummaryStore();
+    readSummaries(objectSummaries::add);
+
+    return objectSummaries;
+  }
+
+  /**
+   * Reads the object summaries of all bucket partitions and passes them to {@code consumer} on the calling thread, in
+   * bucket partition and key order.
+   * 
+   * @return the number of object summaries read
+   */
+  public int readSummaries(@NonNull Consumer<S3ObjectSummary> consumer) {
+    checkArgument(threadCount > 0, "Thread count must be positive: %s", threadCount);
+    val watch = createStarted();
+
+    int count = 0;
+    if (threadCount == 1) {
+      // For all bucket partitions
+      for (val bucketName : getBucketNames()) {
+        count += readBucket(bucketName, prefix, consumer);
+      }
+    } else {
+      count = readShards(createShards(getBucketNames()), consumer);
     }
 
-    return objectSummaries.build();
+    log.info("Finished reading {} object summaries in {}", formatCount(count), watch);
+    return count;
   }
 
-  protected void readBucket(String bucketName, String prefix, Consumer<S3ObjectSummary> callback) {
-    val request = new ListObjectsRequest().withBucketName(bucketName).withPrefix(prefix);
+  protected int readBucket(String bucketName, String prefix, Consumer<S3ObjectSummary> callback) {
     log.info("Reading summaries from '{}/{}'...", bucketName, prefix);
+    return readShard(new Shard(bucketName, prefix, null, null), objectSummaries -> objectSummaries.forEach(callback));
+  }
+
+  protected Set<String> getBucketNames() {
+    val bucketNames = ImmutableSet.<String> builder();
+
+    for (val bucketPartition : s3.listBuckets()) {
+      if (isBucketPartition(bucketPartition)) {
+        bucketNames.add(bucketPartition.getName());
+      }
+    }
+
+    return bucketNames.build();
+  }
+
+  @SneakyThrows
+  private int readShards(List<Shard> shards, Consumer<S3ObjectSummary> consumer) {
+    log.info("Reading summaries from '{}' in {} shards on {} threads...", prefix, shards.size(), threadCount);
+    val shardQueueSize = Math.max(1, queueSize / threadCount);
+    val queues = Lists.<BlockingQueue<Object>> newArrayListWithCapacity(shards.size());
+    val executor = Executors.newFixedThreadPool(Math.min(threadCount, shards.size()),
+        new ThreadFactoryBuilder().setNameFormat("s3-list-%d").setDaemon(true).build());
+
+    val state = new ListState();
+    try {
+      for (val shard : shards) {
+        val queue = new ArrayBlockingQueue<Object>(shardQueueSize);
+        queues.add(queue);
+        executor.execute(() -> listShard(shard, queue, state));
+      }
+
+      // Shards are started in order, so the one being drained is always being listed or done
+      int count = 0;
+      for (val queue : queues) {
+        Object value;
+        while ((value = queue.poll(1, SECONDS)) != END_OF_SHARD) {
+          if (value == null) {
+            state.checkError();
+            continue;
+          }
+
+          @SuppressWarnings("unchecked")
+          val objectSummaries = (List<S3ObjectSummary>) value;
+          objectSummaries.forEach(consumer);
+
+          count += objectSummaries.size();
+        }
+      }
 
+      state.checkError();
+      return count;
+    } finally {
+      // Unblocks listers when the consumer failed
+      state.aborted = true;
+      executor.shutdownNow();
+    }
+  }
+
+  private void listShard(Shard shard, BlockingQueue<Object> queue, ListState state) {
+    try {
+      readShard(shard, objectSummaries -> {
+        if (state.aborted) {
+          throw new ShardAbortedException();
+        }
+
+        put(queue, objectSummaries);
+      });
+
+      put(queue, END_OF_SHARD);
+    } catch (ShardAbortedException e) {
+      return;
+    } catch (Throwable t) {
+      log.error("Error reading shard " + shard + ": ", t);
+      state.error = t;
+    }
+  }
+
+  private int readShard(Shard shard, Consumer<List<S3ObjectSummary>> callback) {
+    val request = new ListObjectsRequest()
+        .withBucketName(shard.getBucketName())
+        .withPrefix(shard.getPrefix())
+        .withMarker(shard.getMarker());
+
+    int count = 0;
     ObjectListing listing;
     do {
       listing = s3.listObjects(request);
+
+      val objectSummaries = Lists.<S3ObjectSummary> newArrayListWithCapacity(listing.getObjectSummaries().size());
+      boolean exhausted = false;
       for (val objectSummary : listing.getObjectSummaries()) {
-        callback.accept(objectSummary);
+        if (shard.isAfter(objectSummary.getKey())) {
+          exhausted = true;
+          break;
+        }
+
+        if (isObject(objectSummary)) {
+          objectSummaries.add(objectSummary);
+        }
+      }
+
+      if (!objectSummaries.isEmpty()) {
+        callback.accept(objectSummaries);
+        count += objectSummaries.size();
+      }
+
+      if (exhausted) {
+        break;
       }
 
-      request.setMarker(listing.getNextMarker());
+      request.setMarker(getNextMarker(listing));
     } while (listing.isTruncated());
+
+    return count;
   }
 
-  protected Set<String> getBucketNames() {
-    val bucketNames = ImmutableSet.<String> builder();
+  private List<Shard> createShards(Set<String> bucketNames) {
+    // Object keys are "<prefix>/<uuid>" so the leading hex digit of the id spreads keys evenly
+    val keyPrefix = prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
 
-    for (val bucketPartition : s3.listBuckets()) {
-      if (isBucketPartition(bucketPartition)) {
-        bucketNames.add(bucketPartition.getName());
+    val shards = Lists.<Shard> newArrayList();
+    for (val bucketName : bucketNames) {
+      // Shards cover (marker, upperBound] so that adjacent shards neither overlap nor leave gaps
+      String marker = null;
+      for (val boundary : SHARD_BOUNDARIES.toCharArray()) {
+        val upperBound = keyPrefix + boundary;
+        shards.add(new Shard(bucketName, prefix, marker, upperBound));
+        marker = upperBound;
       }
+
+      shards.add(new Shard(bucketName, prefix, marker, null));
     }
 
-    return bucketNames.build();
+    return shards;
   }
 
   private boolean isBucketPartition(Bucket bucketPartition) {
@@ -103,4 +276,62 @@ public class CloudS3BucketReader {
     return bucketPartition.getName().matches(bucketPartitionPattern);
   }
 
+  private static String getNextMarker(ObjectListing listing) {
+    // Only set when a delimiter is specified, otherwise continue from the last key
+    val nextMarker = listing.getNextMarker();
+    if (nextMarker != null) {
+      return nextMarker;
+    }
+
+    val objectSummaries = listing.getObjectSummaries();
+    return objectSummaries.isEmpty() ? null : objectSummaries.get(objectSummaries.size() - 1).getKey();
+  }
+
+  private static void put(BlockingQueue<Object> queue, Object value) {
+    try {
+      queue.put(value);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ShardAbortedException();
+    }
+  }
+
+  @Value
+  private static class Shard {
+
+    String bucketName;
+    String prefix;
+
+    /**
+     * Exclusive lower bound, {@code null} for the start of the bucket.
+     */
+    String marker;
+
+    /**
+     * Inclusive upper bound, {@code null} for the end of the bucket.
+     */
+    String upperBound;
+
+    boolean isAfter(String key) {
+      return upperBound != null && key.compareTo(upperBound) > 0;
+    }
+
+  }
+
+  private static class ListState {
+
+    volatile boolean aborted;
+    volatile Throwable error;
+
+    void checkError() {
+      if (error != null) {
+        throw new IllegalStateException("Parallel bucket listing failed", error);
+      }
+    }
+
+  }
+
+  private static class ShardAbortedException extends RuntimeException {
+  }
+
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.cloud.s3;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.Lists;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Columnar store of the object summary fields used by the importers: bucket name, key, size and last modified time.
+ * <p>
+ * Keys are packed as UTF-8 into a single byte arena, bucket names are dictionary encoded and sizes and times are kept
+ * in primitive arrays, so an entry costs tens of bytes rather than an {@link S3ObjectSummary} with its strings, owner
+ * and {@link java.util.Date}. Lookups by key use an open addressing table built on first use. Not thread safe.
+ */
+public class S3ObjectSummaryStore {
+
+  /**
+   * Constants.
+   */
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int INITIAL_KEY_LENGTH = 64;
+  private static final int NO_ENTRY = -1;
+
+  /**
+   * State.
+   */
+  private final List<String> bucketNames = Lists.newArrayList();
+  private short[] bucketIds = new short[INITIAL_CAPACITY];
+  private byte[] keys = new byte[INITIAL_CAPACITY * INITIAL_KEY_LENGTH];
+  private int[] keyOffsets = new int[INITIAL_CAPACITY + 1];
+  private long[] sizes = new long[INITIAL_CAPACITY];
+  private long[] lastModifieds = new long[INITIAL_CAPACITY];
+  private int size;
+  private int[] table;
+
+  public static S3ObjectSummaryStore of(@NonNull Iterable<S3ObjectSummary> objectSummaries) {
+    val store = new S3ObjectSummaryStore();
+    objectSummaries.forEach(store::add);
+
+    return store;
+  }
+
+  public void add(@NonNull S3ObjectSummary objectSummary) {
+    val lastModified = objectSummary.getLastModified();
+    add(objectSummary.getBucketName(), objectSummary.getKey(), objectSummary.getSize(),
+        lastModified == null ? 0L : lastModified.getTime());
+  }
+
+  public void add(@NonNull String bucketName, @NonNull String key, long objectSize, long lastModified) {
+    ensureCapacity(size + 1);
+
+    val bytes = key.getBytes(UTF_8);
+    val offset = keyOffsets[size];
+    if (offset + bytes.length > keys.length) {
+      keys = Arrays.copyOf(keys, Math.max(keys.length * 2, offset + bytes.length));
+    }
+    System.arraycopy(bytes, 0, keys, offset, bytes.length);
+
+    bucketIds[size] = getBucketId(bucketName);
+    keyOffsets[size + 1] = offset + bytes.length;
+    sizes[size] = objectSize;
+    lastModifieds[size] = lastModified;
+    size++;
+
+    // Rebuilt on next lookup
+    table = null;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public String getBucketName(int i) {
+    checkElementIndex(i, size);
+    return bucketNames.get(bucketIds[i]);
+  }
+
+  public String getKey(int i) {
+    checkElementIndex(i, size);
+    return new String(keys, keyOffsets[i], keyOffsets[i + 1] - keyOffsets[i], UTF_8);
+  }
+
+  public long getSize(int i) {
+    checkElementIndex(i, size);
+    return sizes[i];
+  }
+
+  /**
+   * @return milliseconds since the epoch
+   */
+  public long getLastModified(int i) {
+    checkElementIndex(i, size);
+    return lastModifieds[i];
+  }
+
+  /**
+   * Returns the position of the first entry with {@code key} or {@code -1} if there is none.
+   */
+  public int indexOf(@NonNull String key) {
+    if (table == null) {
+      table = createTable();
+    }
+
+    val bytes = key.getBytes(UTF_8);
+    val mask = table.length - 1;
+    for (int slot = hash(bytes, 0, bytes.length) & mask;; slot = (slot + 1) & mask) {
+      val i = table[slot];
+      if (i == NO_ENTRY) {
+        return NO_ENTRY;
+      }
+      if (keyEquals(i, bytes)) {
+        return i;
+      }
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= sizes.length) {
+      return;
+    }
+
+    val newCapacity = Math.max(sizes.length * 2, capacity);
+    bucketIds = Arrays.copyOf(bucketIds, newCapacity);
+    keyOffsets = Arrays.copyOf(keyOffsets, newCapacity + 1);
+    sizes = Arrays.copyOf(sizes, newCapacity);
+    lastModifieds = Arrays.copyOf(lastModifieds, newCapacity);
+  }
+
+  private short getBucketId(String bucketName) {
+    // Few buckets and listings arrive bucket by bucket, so the last one almost always matches
+    int bucketId = bucketNames.size() - 1;
+    if (bucketId < 0 || !bucketNames.get(bucketId).equals(bucketName)) {
+      bucketId = bucketNames.indexOf(bucketName);
+      if (bucketId < 0) {
+        checkState(bucketNames.size() < Short.MAX_VALUE, "Too many buckets: %s", bucketNames.size());
+        bucketId = bucketNames.size();
+        bucketNames.add(bucketName);
+      }
+    }
+
+    return (short) bucketId;
+  }
+
+  private int[] createTable() {
+    // Power of two with a load factor of at most 0.5
+    val table = new int[Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1];
+    Arrays.fill(table, NO_ENTRY);
+
+    val mask = table.length - 1;
+    for (int i = 0; i < size; i++) {
+      int slot = hash(keys, keyOffsets[i], keyOffsets[i + 1]) & mask;
+      while (table[slot] != NO_ENTRY) {
+        if (keyEquals(i, table[slot])) {
+          // First entry of a key wins
+          break;
+        }
+
+        slot = (slot + 1) & mask;
+      }
+
+      if (table[slot] == NO_ENTRY) {
+        table[slot] = i;
+      }
+    }
+
+    return table;
+  }
+
+  private boolean keyEquals(int i, byte[] key) {
+    val offset = keyOffsets[i];
+    val length = keyOffsets[i + 1] - offset;
+    if (length != key.length) {
+      return false;
+    }
+
+    for (int j = 0; j < length; j++) {
+      if (keys[offset + j] != key[j]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private boolean keyEquals(int i, int j) {
+    val length = keyOffsets[i + 1] - keyOffsets[i];
+    if (length != keyOffsets[j + 1] - keyOffsets[j]) {
+      return false;
+    }
+
+    for (int k = 0; k < length; k++) {
+      if (keys[keyOffsets[i] + k] != keys[keyOffsets[j] + k]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static int hash(byte[] bytes, int from, int to) {
+    int hash = 1;
+    for (int i = from; i < to; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+
+    // Spread low bits since the table is masked
+    return hash ^ (hash >>> 16);
+  }
+
+}
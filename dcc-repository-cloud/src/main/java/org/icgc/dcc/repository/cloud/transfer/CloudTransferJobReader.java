@@ -17,29 +17,52 @@
  */
 package org.icgc.dcc.repository.cloud.transfer;
 
-import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
+import static java.util.stream.Collectors.toList;
+import static org.eclipse.jgit.diff.DiffEntry.ChangeType.ADD;
+import static org.eclipse.jgit.diff.DiffEntry.ChangeType.DELETE;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.common.core.util.stream.Streams.stream;
+import static org.icgc.dcc.repository.core.util.TransferMetadataRepository.UpdateStrategy.FETCH_RESET;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.icgc.dcc.repository.cloud.transfer.CloudTransferJobStore.Snapshot;
 import org.icgc.dcc.repository.core.util.TransferMetadataRepository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.val;
+import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Reads the completed transfer jobs of a transfer metadata repository.
+ * <p>
+ * In {@code incremental} mode, parsed jobs are kept in a store inside the repository's {@code .git} directory along
+ * with the commit they were read at. Subsequent reads only parse the job files changed since that commit. The store is
+ * discarded with the clone.
+ */
 @Slf4j
 @RequiredArgsConstructor
 public class CloudTransferJobReader {
@@ -48,6 +71,8 @@ public class CloudTransferJobReader {
    * Constants.
    */
   private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String STORE_FILE_NAME = "dcc-completed-jobs.json";
+  private static final String COMPLETED_DIR_NAME = "completed-jobs";
 
   /**
    * Configuration.
@@ -58,26 +83,75 @@ public class CloudTransferJobReader {
   private final File repoDir;
   @NonNull
   private final String repoDirGlob;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private boolean incremental;
 
   @SneakyThrows
   public List<ObjectNode> readJobs() {
     // Ensure we are in-sync with the remote
-    updateMetadata();
+    val repository = updateMetadata();
 
     // Read and assemble
-    return readFiles();
+    val jobs = incremental ? readFilesIncrementally(repository) : readFiles(resolveJobFiles());
+    return ImmutableList.copyOf(jobs.values());
   }
 
-  private void updateMetadata() throws GitAPIException, IOException {
-    val repository = new TransferMetadataRepository(repoUrl, repoDir, false);
+  private TransferMetadataRepository updateMetadata() throws GitAPIException, IOException {
+    val repository = new TransferMetadataRepository(repoUrl, repoDir, FETCH_RESET);
     repository.update();
+
+    return repository;
   }
 
-  private List<ObjectNode> readFiles() {
-    return resolveCompletedDirs()
-        .flatMap(this::resolveJobFiles)
-        .map(this::readFile)
-        .collect(toImmutableList());
+  private Map<String, ObjectNode> readFilesIncrementally(TransferMetadataRepository repository)
+      throws GitAPIException, IOException {
+    val store = new CloudTransferJobStore(new File(new File(repoDir, ".git"), STORE_FILE_NAME));
+    val headCommitId = repository.getHeadCommitId();
+    val snapshot = store.read();
+
+    if (!isUsable(repository, snapshot)) {
+      log.info("No usable job store found. Reading all job files...");
+      val jobs = readFiles(resolveJobFiles());
+      store.write(new Snapshot(headCommitId, jobs));
+
+      return jobs;
+    }
+
+    if (snapshot.getCommitId().equals(headCommitId)) {
+      log.info("Job store is up to date with {}", headCommitId);
+      return snapshot.getJobs();
+    }
+
+    log.info("Diffing job files from {} to {}...", snapshot.getCommitId(), headCommitId);
+    val jobs = Maps.newTreeMap(snapshot.getJobs());
+    val changedFiles = Lists.<Path> newArrayList();
+    val jobFileMatcher = getJobFileMatcher();
+    for (val change : repository.diff(snapshot.getCommitId(), headCommitId)) {
+      if (change.getChangeType() != ADD) {
+        jobs.remove(change.getOldPath());
+      }
+      if (change.getChangeType() != DELETE && jobFileMatcher.matches(Paths.get(change.getNewPath()))) {
+        changedFiles.add(repoDir.toPath().resolve(change.getNewPath()));
+      }
+    }
+
+    val changedJobs = readFiles(changedFiles);
+    jobs.putAll(changedJobs);
+    log.info("Read {} changed job files of {} jobs", formatCount(changedJobs.size()), formatCount(jobs.size()));
+
+    store.write(new Snapshot(headCommitId, jobs));
+    return jobs;
+  }
+
+  private static boolean isUsable(TransferMetadataRepository repository, Snapshot snapshot) throws IOException {
+    return snapshot != null && snapshot.getCommitId() != null && repository.hasCommit(snapshot.getCommitId());
+  }
+
+  private Map<String, ObjectNode> readFiles(List<Path> jsonFiles) {
+    // Parsing dominates so spread it over the common pool
+    return jsonFiles.parallelStream()
+        .collect(Collectors.toMap(this::getRelativePath, this::readFile, (a, b) -> a, TreeMap::new));
   }
 
   @SneakyThrows
@@ -86,6 +160,12 @@ public class CloudTransferJobReader {
     return (ObjectNode) MAPPER.readTree(jsonFile.toFile());
   }
 
+  private List<Path> resolveJobFiles() {
+    return resolveCompletedDirs()
+        .flatMap(this::resolveJobFiles)
+        .collect(toList());
+  }
+
   @SneakyThrows
   private Stream<Path> resolveJobFiles(File completedDir) {
     log.info("Resolving job files from completed dir '{}'...", completedDir.getCanonicalPath());
@@ -96,7 +176,17 @@ public class CloudTransferJobReader {
   private Stream<File> resolveCompletedDirs() {
     log.info("Resolving repo dirs using glob: '{}'", repoDirGlob);
     val dirs = Files.newDirectoryStream(repoDir.toPath(), repoDirGlob);
-    return stream(dirs).map(d -> new File(d.toFile(), "completed-jobs"));
+    return stream(dirs).map(d -> new File(d.toFile(), COMPLETED_DIR_NAME));
+  }
+
+  private PathMatcher getJobFileMatcher() {
+    // Same files as resolveJobFiles, relative to the repo dir
+    return FileSystems.getDefault().getPathMatcher("glob:" + repoDirGlob + "/" + COMPLETED_DIR_NAME + "/*.json");
+  }
+
+  private String getRelativePath(Path file) {
+    // Git paths are always '/' separated
+    return repoDir.toPath().relativize(file).toString().replace(File.separatorChar, '/');
   }
 
   private static Predicate<? super Path> isJsonFile() {
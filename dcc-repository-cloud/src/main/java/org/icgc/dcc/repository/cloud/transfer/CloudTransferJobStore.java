@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.cloud.transfer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.Maps;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local store of parsed completed jobs, keyed by repository relative path and stamped with the commit they were read
+ * at.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CloudTransferJobStore {
+
+  /**
+   * Constants.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final File storeFile;
+
+  /**
+   * Returns the stored jobs or {@code null} if there are none or they cannot be read.
+   */
+  public Snapshot read() {
+    if (!storeFile.exists()) {
+      return null;
+    }
+
+    try {
+      log.info("Reading job store '{}'...", storeFile);
+      val root = (ObjectNode) MAPPER.readTree(storeFile);
+      val jobs = Maps.<String, ObjectNode> newTreeMap();
+      val fields = root.path("jobs").fields();
+      while (fields.hasNext()) {
+        val field = fields.next();
+        jobs.put(field.getKey(), (ObjectNode) field.getValue());
+      }
+
+      return new Snapshot(root.path("commitId").textValue(), jobs);
+    } catch (Exception e) {
+      log.warn("Could not read job store '{}', ignoring: {}", storeFile, e.getMessage());
+      return null;
+    }
+  }
+
+  @SneakyThrows
+  public void write(@NonNull Snapshot snapshot) {
+    log.info("Writing {} jobs at {} to job store '{}'...", snapshot.getJobs().size(), snapshot.getCommitId(),
+        storeFile);
+    val root = MAPPER.createObjectNode().put("commitId", snapshot.getCommitId());
+    val jobs = root.putObject("jobs");
+    snapshot.getJobs().forEach(jobs::set);
+
+    // Write then move so that an interrupted write never leaves a partial store behind
+    val tempFile = new File(storeFile.getPath() + ".tmp");
+    MAPPER.writeValue(tempFile, root);
+    Files.move(tempFile.toPath(), storeFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  @Value
+  public static class Snapshot {
+
+    String commitId;
+    Map<String, ObjectNode> jobs;
+
+  }
+
+}
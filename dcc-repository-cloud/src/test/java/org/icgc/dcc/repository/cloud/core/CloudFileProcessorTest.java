@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.cloud.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
+import static org.icgc.dcc.repository.core.util.RepositoryFileContexts.newLocalRepositoryFileContext;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.icgc.dcc.repository.core.model.Repositories;
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+
+import lombok.val;
+
+public class CloudFileProcessorTest {
+
+  @Test
+  public void testProcessCompletedJobs() {
+    val bamId = UUID.randomUUID().toString();
+    val baiId = UUID.randomUUID().toString();
+    val vcfId = UUID.randomUUID().toString();
+    val otherBamId = UUID.randomUUID().toString();
+
+    val completedJobs = ImmutableList.of(
+        createJob("gnos-1",
+            createFile(bamId, "a.bam"),
+            createFile(baiId, "a.bam.bai"),
+            createFile(vcfId, "a.vcf.gz")),
+        createJob("gnos-2",
+            createFile(otherBamId, "b.bam")));
+
+    val objectSummaries = ImmutableList.of(
+        createObjectSummary(UUID.randomUUID().toString()),
+        createObjectSummary(otherBamId),
+        createObjectSummary(baiId),
+        createObjectSummary(bamId));
+
+    val processor = new CloudFileProcessor(newLocalRepositoryFileContext(), Repositories.getAWSRepository());
+    val files = ImmutableList.copyOf(processor.processCompletedJobs(completedJobs, objectSummaries));
+
+    // Summary of the VCF is missing and the BAI is only an index file
+    assertThat(files).hasSize(2);
+    assertThat(getObjectIds(files)).containsOnly(bamId, otherBamId);
+
+    val bamFile = files.get(1);
+    assertThat(bamFile.getObjectId()).isEqualTo(bamId);
+    assertThat(bamFile.getFileCopies().get(0).getRepoDataBundleId()).isEqualTo("gnos-1");
+    assertThat(bamFile.getFileCopies().get(0).getIndexFile().getFileName()).isEqualTo("a.bam.bai");
+  }
+
+  private static List<String> getObjectIds(List<RepositoryFile> files) {
+    return files.stream().map(RepositoryFile::getObjectId).collect(toImmutableList());
+  }
+
+  private static ObjectNode createJob(String gnosId, ObjectNode... files) {
+    val job = DEFAULT.createObjectNode().put("gnos_id", gnosId);
+    job.withArray("files").addAll(ImmutableList.copyOf(files));
+
+    return job;
+  }
+
+  private static ObjectNode createFile(String objectId, String fileName) {
+    return DEFAULT.createObjectNode()
+        .put("object_id", objectId)
+        .put("file_name", fileName)
+        .put("file_size", 1L)
+        .put("file_md5sum", "md5");
+  }
+
+  private static S3ObjectSummary createObjectSummary(String objectId) {
+    val objectSummary = new S3ObjectSummary();
+    objectSummary.setKey("data/" + objectId);
+    objectSummary.setSize(1L);
+    objectSummary.setLastModified(new Date());
+
+    return objectSummary;
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.cloud.s3;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.Bucket;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import lombok.val;
+
+public class CloudS3BucketReaderTest {
+
+  /**
+   * Constants.
+   */
+  private static final String BUCKET_NAME = "oicr.icgc";
+  private static final String BUCKET_KEY_PREFIX = "data";
+
+  @Test
+  public void testReadSummariesInParallel() {
+    val s3 = new LocalS3(7);
+    val expected = Sets.<String> newHashSet();
+    val random = new Random(1);
+    for (val bucketName : new String[] { BUCKET_NAME, BUCKET_NAME + ".1", BUCKET_NAME + ".2" }) {
+      for (int i = 0; i < 500; i++) {
+        val key = BUCKET_KEY_PREFIX + "/" + new UUID(random.nextLong(), random.nextLong());
+        s3.put(bucketName, key);
+        expected.add(key);
+      }
+
+      // Keys on and around shard boundaries
+      for (val key : new String[] { "data/", "data/1", "data/f", "data/g", "data.txt" }) {
+        s3.put(bucketName, key);
+      }
+      val boundaryKey = "data/10000000-0000-0000-0000-000000000000";
+      s3.put(bucketName, boundaryKey);
+      expected.add(boundaryKey);
+    }
+
+    // Not a partition of the bucket
+    s3.put("oicr.icgc.meta", "data/" + UUID.randomUUID());
+
+    val sequential = new CloudS3BucketReader(BUCKET_NAME, BUCKET_KEY_PREFIX, s3).readSummaries();
+    val parallel = new CloudS3BucketReader(BUCKET_NAME, BUCKET_KEY_PREFIX, s3).threadCount(4).queueSize(2)
+        .readSummaries();
+
+    assertThat(sequential).hasSize(3 * 501);
+    assertThat(getKeys(sequential).stream().collect(toSet())).isEqualTo(expected);
+
+    // Same order as the sequential read so that "first summary wins" rules are deterministic
+    assertThat(getBucketKeys(parallel)).isEqualTo(getBucketKeys(sequential));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReadSummariesInParallelFailure() {
+    val s3 = new LocalS3(7) {
+
+      @Override
+      public ObjectListing listObjects(ListObjectsRequest request) {
+        throw new IllegalStateException("Listing failed");
+      }
+
+    };
+    s3.put(BUCKET_NAME, BUCKET_KEY_PREFIX + "/" + UUID.randomUUID());
+
+    new CloudS3BucketReader(BUCKET_NAME, BUCKET_KEY_PREFIX, s3).threadCount(4).readSummaries();
+  }
+
+  @Test
+  public void testReadBucketWithPrefix() {
+    val s3 = new LocalS3(7);
+    val key = "other/" + new UUID(0, 1);
+    s3.put(BUCKET_NAME, BUCKET_KEY_PREFIX + "/" + new UUID(0, 2));
+    s3.put(BUCKET_NAME, key);
+
+    val keys = Lists.<String> newArrayList();
+    val count = new CloudS3BucketReader(BUCKET_NAME, BUCKET_KEY_PREFIX, s3)
+        .readBucket(BUCKET_NAME, "other", summary -> keys.add(summary.getKey()));
+
+    assertThat(count).isEqualTo(1);
+    assertThat(keys).containsExactly(key);
+  }
+
+  private static List<String> getKeys(List<S3ObjectSummary> objectSummaries) {
+    return objectSummaries.stream().map(S3ObjectSummary::getKey).collect(toList());
+  }
+
+  private static List<String> getBucketKeys(List<S3ObjectSummary> objectSummaries) {
+    return objectSummaries.stream().map(summary -> summary.getBucketName() + "/" + summary.getKey()).collect(toList());
+  }
+
+  /**
+   * Local stand-in for S3 that pages sorted keys like the real service.
+   */
+  private static class LocalS3 extends AmazonS3Client {
+
+    private final int maxKeys;
+    private final Map<String, NavigableSet<String>> buckets = Maps.newConcurrentMap();
+
+    LocalS3(int maxKeys) {
+      this.maxKeys = maxKeys;
+    }
+
+    void put(String bucketName, String key) {
+      buckets.computeIfAbsent(bucketName, name -> new TreeSet<>()).add(key);
+    }
+
+    @Override
+    public List<Bucket> listBuckets() {
+      return buckets.keySet().stream().map(Bucket::new).collect(toList());
+    }
+
+    @Override
+    public ObjectListing listObjects(ListObjectsRequest request) {
+      val keys = buckets.get(request.getBucketName());
+      val marker = request.getMarker();
+      val tail = marker == null ? keys : keys.tailSet(marker, false);
+
+      val listing = new ObjectListing();
+      listing.setBucketName(request.getBucketName());
+      listing.setPrefix(request.getPrefix());
+      listing.setMarker(marker);
+      for (val key : tail) {
+        if (request.getPrefix() != null && !key.startsWith(request.getPrefix())) {
+          continue;
+        }
+        if (listing.getObjectSummaries().size() == maxKeys) {
+          // Next marker is only returned with a delimiter
+          listing.setTruncated(true);
+          break;
+        }
+
+        val objectSummary = new S3ObjectSummary();
+        objectSummary.setBucketName(request.getBucketName());
+        objectSummary.setKey(key);
+        listing.getObjectSummaries().add(objectSummary);
+      }
+
+      return listing;
+    }
+
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.cloud.s3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import lombok.val;
+
+public class S3ObjectSummaryStoreTest {
+
+  @Test
+  public void testAdd() {
+    val objectSummary = new S3ObjectSummary();
+    objectSummary.setBucketName("oicr.icgc");
+    objectSummary.setKey("data/\u00e9t\u00e9");
+    objectSummary.setSize(42L);
+    objectSummary.setLastModified(new Date(1000L));
+
+    val store = S3ObjectSummaryStore.of(ImmutableList.of(objectSummary));
+
+    assertThat(store.size()).isEqualTo(1);
+    assertThat(store.getBucketName(0)).isEqualTo("oicr.icgc");
+    assertThat(store.getKey(0)).isEqualTo("data/\u00e9t\u00e9");
+    assertThat(store.getSize(0)).isEqualTo(42L);
+    assertThat(store.getLastModified(0)).isEqualTo(1000L);
+  }
+
+  @Test
+  public void testIndexOf() {
+    val store = new S3ObjectSummaryStore();
+    val keys = Lists.<String> newArrayList();
+    for (int i = 0; i < 10000; i++) {
+      val key = UUID.randomUUID().toString();
+      keys.add(key);
+      store.add("bucket." + i % 3, key, i, i);
+    }
+
+    // Same object in another bucket
+    store.add("bucket.3", keys.get(0), -1, -1);
+
+    for (int i = 0; i < keys.size(); i++) {
+      assertThat(store.indexOf(keys.get(i))).isEqualTo(i);
+      assertThat(store.getKey(i)).isEqualTo(keys.get(i));
+      assertThat(store.getBucketName(i)).isEqualTo("bucket." + i % 3);
+    }
+    assertThat(store.indexOf("missing")).isEqualTo(-1);
+    assertThat(store.getBucketName(10000)).isEqualTo("bucket.3");
+  }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.cloud.transfer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.Files;
+
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.val;
+
+public class CloudTransferJobReaderTest {
+
+  /**
+   * Constants.
+   */
+  private static final String REPO_DIR_GLOB = "s3-transfer-jobs-*";
+
+  /**
+   * State.
+   */
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testReadJobsIncrementally() throws Exception {
+    val originDir = tmp.newFolder("origin");
+    val repoDir = new File(tmp.getRoot(), "repo");
+
+    @Cleanup
+    val origin = Git.init().setDirectory(originDir).call();
+    writeJob(originDir, "s3-transfer-jobs-1/completed-jobs/a.json", "a");
+    writeJob(originDir, "s3-transfer-jobs-1/completed-jobs/b.json", "b");
+    writeJob(originDir, "s3-transfer-jobs-1/failed-jobs/x.json", "x");
+    origin.add().addFilepattern(".").call();
+    origin.commit().setMessage("Initial").call();
+
+    val reader = new CloudTransferJobReader(originDir.toURI().toString(), repoDir, REPO_DIR_GLOB).incremental(true);
+    assertThat(getIds(reader.readJobs())).containsExactly("a", "b");
+    assertThat(new File(repoDir, ".git/dcc-completed-jobs.json")).exists();
+
+    writeJob(originDir, "s3-transfer-jobs-1/completed-jobs/a.json", "a2");
+    writeJob(originDir, "s3-transfer-jobs-2/completed-jobs/c.json", "c");
+    writeJob(originDir, "s3-transfer-jobs-2/failed-jobs/y.json", "y");
+    origin.rm().addFilepattern("s3-transfer-jobs-1/completed-jobs/b.json").call();
+    origin.add().addFilepattern(".").call();
+    origin.commit().setMessage("Update").call();
+
+    assertThat(getIds(reader.readJobs())).containsExactly("a2", "c");
+
+    // Unchanged
+    assertThat(getIds(reader.readJobs())).containsExactly("a2", "c");
+  }
+
+  @Test
+  public void testReadJobsWithoutStoreCommit() throws Exception {
+    val originDir = tmp.newFolder("origin");
+    val repoDir = new File(tmp.getRoot(), "repo");
+
+    @Cleanup
+    val origin = Git.init().setDirectory(originDir).call();
+    writeJob(originDir, "s3-transfer-jobs-1/completed-jobs/a.json", "a");
+    origin.add().addFilepattern(".").call();
+    origin.commit().setMessage("Initial").call();
+
+    val reader = new CloudTransferJobReader(originDir.toURI().toString(), repoDir, REPO_DIR_GLOB).incremental(true);
+    assertThat(getIds(reader.readJobs())).containsExactly("a");
+
+    // A store without a commit id is read in full
+    val storeFile = new File(repoDir, ".git/dcc-completed-jobs.json");
+    Files.write("{\"jobs\": {}}", storeFile, UTF_8);
+    assertThat(getIds(reader.readJobs())).containsExactly("a");
+  }
+
+  @Test
+  public void testReadJobsRepairsWorkingCopy() throws Exception {
+    val originDir = tmp.newFolder("origin");
+    val repoDir = new File(tmp.getRoot(), "repo");
+
+    @Cleanup
+    val origin = Git.init().setDirectory(originDir).call();
+    writeJob(originDir, "s3-transfer-jobs-1/completed-jobs/a.json", "a");
+    origin.add().addFilepattern(".").call();
+    origin.commit().setMessage("Initial").call();
+
+    val reader = new CloudTransferJobReader(originDir.toURI().toString(), repoDir, REPO_DIR_GLOB);
+    assertThat(getIds(reader.readJobs())).containsExactly("a");
+
+    // Local edits and strays are discarded on the next update
+    writeJob(repoDir, "s3-transfer-jobs-1/completed-jobs/a.json", "edited");
+    writeJob(repoDir, "s3-transfer-jobs-1/completed-jobs/z.json", "z");
+    assertThat(getIds(reader.readJobs())).containsExactly("a");
+  }
+
+  private static String[] getIds(List<ObjectNode> jobs) {
+    return jobs.stream().map(job -> job.get("id").textValue()).toArray(String[]::new);
+  }
+
+  @SneakyThrows
+  private static void writeJob(File dir, String path, String id) {
+    val file = new File(dir, path);
+    Files.createParentDirs(file);
+    Files.write("{\"id\": \"" + id + "\"}", file, UTF_8);
+  }
+
+}
@@ -17,6 +17,7 @@
  */
 package org.icgc.dcc.repository.collab;
 
+import static org.icgc.dcc.repository.cloud.s3.CloudS3BucketReader.DEFAULT_THREAD_COUNT;
 import static org.icgc.dcc.repository.core.model.RepositorySource.COLLAB;
 
 import java.io.File;
@@ -52,13 +53,13 @@ public class CollabImporter extends CloudImporter {
 
   @Override
   protected CloudTransferJobReader createJobReader() {
-    return new CloudTransferJobReader(GIT_REPO_URL, GIT_REPO_DIR, GIT_REPO_DIR_GLOB);
+    return new CloudTransferJobReader(GIT_REPO_URL, GIT_REPO_DIR, GIT_REPO_DIR_GLOB).incremental(true);
   }
 
   @Override
   protected CloudS3BucketReader createBucketReader() {
     val s3 = AWSClientFactory.createS3Client();
-    return new CloudS3BucketReader(BUCKET_NAME, BUCKET_KEY_PREFIX, s3);
+    return new CloudS3BucketReader(BUCKET_NAME, BUCKET_KEY_PREFIX, s3).threadCount(DEFAULT_THREAD_COUNT);
   }
 
   @Override
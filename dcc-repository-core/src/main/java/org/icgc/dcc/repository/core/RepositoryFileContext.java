@@ -21,6 +21,7 @@ import static lombok.AccessLevel.PACKAGE;
 import static lombok.AccessLevel.PRIVATE;
 import static org.icgc.dcc.repository.core.util.RepositoryFiles.qualifyDonorId;
 
+import java.io.File;
 import java.net.URI;
 import java.util.Map;
 import java.util.Set;
@@ -62,6 +63,23 @@ public class RepositoryFileContext {
   private final Set<RepositorySource> sources;
   @Getter
   private final boolean readOnly;
+  @Getter
+  @NonNull
+  private final File cacheDir;
+  @Getter
+  private final boolean archiveAsync;
+  @Getter
+  private final int archiveQueueSize;
+  @Getter
+  private final int archiveCompressionThreads;
+  @Getter
+  private final boolean indexIncremental;
+  @Getter
+  private final int indexBatchSize;
+  @Getter
+  private final int indexScanThreads;
+  @Getter
+  private final int collectThreads;
 
   /**
    * Metadata.
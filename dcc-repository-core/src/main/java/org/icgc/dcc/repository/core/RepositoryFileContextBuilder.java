@@ -20,7 +20,9 @@ package org.icgc.dcc.repository.core;
 import static java.lang.String.format;
 import static java.util.Collections.emptyMap;
 import static lombok.AccessLevel.PRIVATE;
+import static org.icgc.dcc.repository.core.util.IdClients.concurrentCachingIdClient;
 
+import java.io.File;
 import java.net.URI;
 import java.util.Map;
 import java.util.Set;
@@ -30,10 +32,10 @@ import org.icgc.dcc.common.core.util.URIs;
 import org.icgc.dcc.common.tcga.reader.TCGAMappingsReader;
 import org.icgc.dcc.id.client.core.IdClient;
 import org.icgc.dcc.id.client.http.HttpIdClient;
-import org.icgc.dcc.id.client.util.CachingIdClient;
 import org.icgc.dcc.id.client.util.HashIdClient;
 import org.icgc.dcc.repository.core.model.RepositorySource;
 import org.icgc.dcc.repository.core.reader.RepositoryProjectReader;
+import org.icgc.dcc.repository.core.util.PartitionedCollectionScanner;
 
 import com.mongodb.MongoClientURI;
 
@@ -51,6 +53,10 @@ public final class RepositoryFileContextBuilder {
   /**
    * Constants.
    */
+  public static final boolean DEFAULT_ARCHIVE_ASYNC = true;
+  public static final int DEFAULT_ARCHIVE_QUEUE_SIZE = 10000;
+  public static final int DEFAULT_ARCHIVE_COMPRESSION_THREADS = Runtime.getRuntime().availableProcessors();
+  public static final File DEFAULT_CACHE_DIR = new File("/tmp/dcc-repository");
   private static final int DEFAULT_MONGO_PORT = 27017;
   private static final String MONGO_URI_TEMPLATE = "mongodb://localhost:%d/%s";
   private static final String DEFAULT_ID_SERVICE_URL = "http://hcache-dcc.oicr.on.ca:5391/";
@@ -100,6 +106,30 @@ public final class RepositoryFileContextBuilder {
   @Setter
   @Accessors(chain = true, fluent = true)
   private boolean readOnly = false;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private File cacheDir = DEFAULT_CACHE_DIR;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private boolean archiveAsync = DEFAULT_ARCHIVE_ASYNC;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int archiveQueueSize = DEFAULT_ARCHIVE_QUEUE_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int archiveCompressionThreads = DEFAULT_ARCHIVE_COMPRESSION_THREADS;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private boolean indexIncremental = false;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int indexBatchSize = PartitionedCollectionScanner.DEFAULT_BATCH_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int indexScanThreads = PartitionedCollectionScanner.DEFAULT_THREAD_COUNT;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int collectThreads = PartitionedCollectionScanner.DEFAULT_THREAD_COUNT;
 
   public static RepositoryFileContextBuilder builder() {
     return new RepositoryFileContextBuilder();
@@ -112,7 +142,8 @@ public final class RepositoryFileContextBuilder {
     val tcgaMappings = new TCGAMappingsReader().readMappings();
 
     return new RepositoryFileContext(repoMongoUri, esUri, archiveUri, indexAlias, skipImport, sources, readOnly,
-        primarySites, idClient, tcgaMappings, pcawgIdResolver, dccIdResolver, report);
+        cacheDir, archiveAsync, archiveQueueSize, archiveCompressionThreads, indexIncremental, indexBatchSize,
+        indexScanThreads, collectThreads, primarySites, idClient, tcgaMappings, pcawgIdResolver, dccIdResolver, report);
   }
 
   private Map<String, String> createPrimarySites() {
@@ -124,7 +155,8 @@ public final class RepositoryFileContextBuilder {
   }
 
   private IdClient createIdClient() {
-    return realIds ? new CachingIdClient(new HttpIdClient(idUrl, "", authToken)) : new HashIdClient();
+    // Importers resolve ids from several threads, so the per-key concurrent cache stands in for CachingIdClient
+    return concurrentCachingIdClient(realIds ? new HttpIdClient(idUrl, "", authToken) : new HashIdClient());
   }
 
   @SneakyThrows
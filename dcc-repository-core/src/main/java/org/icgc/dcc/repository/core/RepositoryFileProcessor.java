@@ -26,6 +26,7 @@ import static org.icgc.dcc.common.core.util.stream.Streams.stream;
 import static org.icgc.dcc.common.tcga.core.TCGAIdentifiers.isUUID;
 import static org.icgc.dcc.repository.core.model.RepositoryProjects.getTARGETProjects;
 import static org.icgc.dcc.repository.core.model.RepositoryProjects.getTCGAProjects;
+import static org.icgc.dcc.repository.core.util.ObjectIds.objectId;
 
 import java.util.List;
 import java.util.Optional;
@@ -36,7 +37,6 @@ import java.util.stream.Stream;
 
 import org.icgc.dcc.common.core.meta.Resolver.CodeListsResolver;
 import org.icgc.dcc.common.core.meta.RestfulCodeListsResolver;
-import org.icgc.dcc.common.core.util.UUID5;
 import org.icgc.dcc.repository.core.meta.Entity;
 import org.icgc.dcc.repository.core.meta.MetadataClient;
 import org.icgc.dcc.repository.core.meta.MetadataService;
@@ -45,7 +45,6 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.Donor;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Study;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -204,7 +203,7 @@ public abstract class RepositoryFileProcessor {
   }
 
   protected static String resolveObjectId(String... parts) {
-    return UUID5.fromUTF8(UUID5.getNamespace(), Joiner.on('/').join(parts)).toString();
+    return objectId(parts);
   }
 
   private static Set<String> resolveTranslatableProjectCodes() {
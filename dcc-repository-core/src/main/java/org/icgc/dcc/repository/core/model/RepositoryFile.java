@@ -21,9 +21,11 @@ import static java.util.Collections.singletonList;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.collect.Lists;
 
 import lombok.Data;
+import lombok.NonNull;
 import lombok.val;
 import lombok.experimental.Accessors;
 import lombok.experimental.UtilityClass;
@@ -145,6 +147,54 @@ public class RepositoryFile {
       return this.setRepoDataSetIds(singletonList(dataSetID));
     }
 
+    /**
+     * Sets the repository attributes that are fixed per repository. Data and metadata paths are file specific.
+     */
+    public FileCopy setRepository(@NonNull Repository repository) {
+      return this
+          .setRepoType(repository.getType().getId())
+          .setRepoOrg(repository.getSource().getId())
+          .setRepoName(repository.getName())
+          .setRepoCode(repository.getCode())
+          .setRepoCountry(repository.getCountry())
+          .setRepoBaseUrl(repository.getBaseUrl());
+    }
+
+    /**
+     * @return the canonical repository of this copy, if known
+     */
+    @JsonIgnore
+    public Repository getRepository() {
+      return repoCode == null ? null : Repositories.getRepository(repoCode);
+    }
+
+    /**
+     * Replaces repository attributes that are equal to those of the canonical repository with the canonical instances,
+     * so that deserialized copies share them instead of each holding their own. Values are never changed.
+     */
+    public FileCopy internRepository() {
+      val repository = getRepository();
+      if (repository == null) {
+        return this;
+      }
+
+      val type = repository.getType();
+      repoType = intern(repoType, type.getId());
+      repoOrg = intern(repoOrg, repository.getSource().getId());
+      repoName = intern(repoName, repository.getName());
+      repoCode = repository.getCode();
+      repoCountry = intern(repoCountry, repository.getCountry());
+      repoBaseUrl = intern(repoBaseUrl, repository.getBaseUrl());
+      repoDataPath = intern(repoDataPath, type.getDataPath());
+      repoMetadataPath = intern(repoMetadataPath, type.getMetadataPath());
+
+      return this;
+    }
+
+    private static String intern(String value, String canonical) {
+      return canonical != null && canonical.equals(value) ? canonical : value;
+    }
+
   }
 
   @Data
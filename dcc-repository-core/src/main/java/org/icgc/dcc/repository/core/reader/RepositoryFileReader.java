@@ -17,15 +17,20 @@
  */
 package org.icgc.dcc.repository.core.reader;
 
+import java.util.function.Consumer;
+
 import org.icgc.dcc.repository.core.model.RepositoryCollection;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.util.AbstractJongoComponent;
+import org.icgc.dcc.repository.core.util.PartitionedCollectionScanner;
+import org.icgc.dcc.repository.core.util.RepositoryFileCodec;
 import org.jongo.MongoCollection;
 
 import com.mongodb.MongoClientURI;
 
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -56,7 +61,18 @@ public class RepositoryFileReader extends AbstractJongoComponent {
 
   public Iterable<RepositoryFile> read() {
     log.info("Reading '{}' files...", collection.getName());
-    return collection.find().as(RepositoryFile.class);
+    return collection.find().map(RepositoryFileCodec::decode);
+  }
+
+  /**
+   * Reads files on {@code threadCount} threads, handing them to {@code consumer} on the calling thread in no particular
+   * order.
+   */
+  public int read(int threadCount, @NonNull Consumer<RepositoryFile> consumer) {
+    log.info("Reading '{}' files on {} threads...", collection.getName(), threadCount);
+    val scanner = new PartitionedCollectionScanner(collection).threadCount(threadCount);
+
+    return scanner.scan(RepositoryFileCodec::decode, consumer);
   }
 
 }
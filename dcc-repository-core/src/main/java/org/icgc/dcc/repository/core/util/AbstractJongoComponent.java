@@ -53,6 +53,11 @@ public abstract class AbstractJongoComponent implements Closeable {
    */
   protected final Jongo jongo;
 
+  /**
+   * State.
+   */
+  private boolean closed;
+
   public AbstractJongoComponent(@NonNull MongoClientURI mongoUri) {
     this.mongoUri = mongoUri;
     this.jongo = newJongo(mongoUri);
@@ -60,7 +65,11 @@ public abstract class AbstractJongoComponent implements Closeable {
 
   @Override
   public void close() throws IOException {
-    jongo.getDatabase().getMongo().close();
+    if (!closed) {
+      // The client is shared so only give up this component's reference
+      closed = true;
+      MongoClientRegistry.release(mongoUri);
+    }
   }
 
   protected MongoCollection getCollection(@NonNull RepositoryCollection fileCollection) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.google.common.collect.Maps;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Index of the files of a single bundle (workflow, job or analysis) by file name. Built once per bundle so that
+ * companion files such as {@code .bai}, {@code .tbi}, {@code .idx} and {@code .xml} are found with a hash probe
+ * instead of a scan of the bundle's files.
+ * 
+ * @param <T> the file type
+ */
+@RequiredArgsConstructor(access = PRIVATE)
+public final class FileNameIndex<T> {
+
+  /**
+   * State.
+   */
+  private final Map<String, T> files;
+
+  /**
+   * Indexes {@code files} by {@code fileName}. Files without a name are skipped and the first file of a given name
+   * wins, as with a linear {@code findFirst} search.
+   */
+  public static <T> FileNameIndex<T> index(@NonNull Iterable<? extends T> files,
+      @NonNull Function<? super T, String> fileName) {
+    val index = Maps.<String, T> newHashMap();
+    for (val file : files) {
+      val name = fileName.apply(file);
+      if (name != null) {
+        index.putIfAbsent(name, file);
+      }
+    }
+
+    return new FileNameIndex<T>(index);
+  }
+
+  public Optional<T> get(@NonNull String fileName) {
+    return Optional.ofNullable(files.get(fileName));
+  }
+
+  /**
+   * Finds the companion of {@code fileName} with the given {@code extension} (e.g. {@code file.bam.bai}).
+   */
+  public Optional<T> getCompanion(@NonNull String fileName, @NonNull String extension) {
+    return get(fileName + extension);
+  }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.icgc.dcc.id.client.core.IdClient;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.val;
+
+@NoArgsConstructor(access = PRIVATE)
+public final class IdClients {
+
+  /**
+   * Caches the results of {@code delegate} per method and arguments so that importers can resolve ids from several
+   * threads. Concurrent calls with the same arguments share a single call to {@code delegate} while calls with
+   * different arguments proceed in parallel.
+   * <p>
+   * Empty and failed results are not cached, so a lookup that precedes the creation of an id is repeated.
+   */
+  public static IdClient concurrentCachingIdClient(@NonNull IdClient delegate) {
+    val results = Maps.<List<Object>, CompletableFuture<Object>> newConcurrentMap();
+
+    return Reflection.newProxy(IdClient.class, new AbstractInvocationHandler() {
+
+      @Override
+      protected Object handleInvocation(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getReturnType() == void.class) {
+          return invoke(delegate, method, args);
+        }
+
+        return invokeOnce(results, Lists.asList(method, args), () -> invoke(delegate, method, args));
+      }
+
+    });
+  }
+
+  private static Object invokeOnce(ConcurrentMap<List<Object>, CompletableFuture<Object>> results, List<Object> key,
+      Invocation invocation) throws Throwable {
+    val future = new CompletableFuture<Object>();
+    val existing = results.putIfAbsent(key, future);
+    if (existing != null) {
+      try {
+        return existing.get();
+      } catch (ExecutionException e) {
+        throw e.getCause();
+      }
+    }
+
+    try {
+      val result = invocation.invoke();
+      future.complete(result);
+      if (result == null || Optional.empty().equals(result)) {
+        results.remove(key, future);
+      }
+
+      return result;
+    } catch (Throwable t) {
+      results.remove(key, future);
+      future.completeExceptionally(t);
+      throw t;
+    }
+  }
+
+  private static Object invoke(IdClient delegate, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(delegate, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  @FunctionalInterface
+  private interface Invocation {
+
+    Object invoke() throws Throwable;
+
+  }
+
+}
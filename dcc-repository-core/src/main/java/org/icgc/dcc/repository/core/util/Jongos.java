@@ -26,17 +26,19 @@ import org.jongo.Mapper;
 import org.jongo.marshall.jackson.JacksonMapper;
 
 import com.mongodb.DB;
-import com.mongodb.MongoClient;
 import com.mongodb.MongoClientURI;
 
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
-import lombok.SneakyThrows;
 import lombok.val;
 
 @NoArgsConstructor(access = PRIVATE)
 public final class Jongos {
 
+  /**
+   * Creates a {@link Jongo} backed by the shared client of {@link MongoClientRegistry}. Callers must
+   * {@link MongoClientRegistry#release} the URI when done.
+   */
   public static Jongo newJongo(@NonNull MongoClientURI mongoUri) {
     val db = newDB(mongoUri);
     val mapper = newMapper();
@@ -44,15 +46,14 @@ public final class Jongos {
     return new Jongo(db, mapper);
   }
 
-  @SneakyThrows
   private static DB newDB(MongoClientURI mongoUri) {
-    val mongo = new MongoClient(mongoUri);
+    val mongo = MongoClientRegistry.acquire(mongoUri);
     val db = mongo.getDB(mongoUri.getDatabase());
 
     return db;
   }
 
-  private static Mapper newMapper() {
+  static Mapper newMapper() {
     return new JacksonMapper.Builder().addModifier(mapper -> {
       mapper.setPropertyNamingStrategy(CAMEL_CASE_TO_LOWER_CASE_WITH_UNDERSCORES);
       mapper.setSerializationInclusion(ALWAYS);
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static com.google.common.base.Preconditions.checkState;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.MongoClientURI;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process-wide registry of reference counted {@link MongoClient}s keyed by {@link MongoClientURI}.
+ * <p>
+ * A {@link MongoClient} is a connection pool that is meant to be shared. Components {@link #acquire} a client when they
+ * are created and {@link #release} it when closed so that they share warm connections, and the client is only closed
+ * when the last one is released. The client is created with the options of the first URI acquired for its key, so the
+ * pool size is given with the URI, e.g. {@code new MongoClientURI(uri, MongoClientOptions.builder()
+ * .connectionsPerHost(n))}. Options in the URI string itself (e.g. {@code maxPoolSize}) take precedence.
+ */
+@Slf4j
+@NoArgsConstructor(access = PRIVATE)
+public final class MongoClientRegistry {
+
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_CONNECTIONS_PER_HOST = 100;
+
+  /**
+   * State.
+   */
+  private static final Map<String, Entry> entries = Maps.newHashMap();
+
+  public static synchronized MongoClient acquire(@NonNull MongoClientURI mongoUri) {
+    val key = mongoUri.getURI();
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      log.info("Creating shared Mongo client for '{}' with {} connections per host...", mongoUri.getHosts(),
+          mongoUri.getOptions().getConnectionsPerHost());
+      val listener = new PoolMetricsListener();
+      val options = MongoClientOptions.builder(mongoUri.getOptions()).addConnectionPoolListener(listener);
+      entry = new Entry(new MongoClient(new MongoClientURI(key, options)), listener);
+      entries.put(key, entry);
+    }
+
+    entry.referenceCount++;
+    return entry.client;
+  }
+
+  public static synchronized void release(@NonNull MongoClientURI mongoUri) {
+    val key = mongoUri.getURI();
+    val entry = entries.get(key);
+    checkState(entry != null, "No Mongo client acquired for '%s'", mongoUri.getHosts());
+
+    if (--entry.referenceCount == 0) {
+      logMetrics();
+      log.info("Closing shared Mongo client for '{}'", mongoUri.getHosts());
+      entries.remove(key);
+      entry.client.close();
+    }
+  }
+
+  public static synchronized int getReferenceCount(@NonNull MongoClientURI mongoUri) {
+    val entry = entries.get(mongoUri.getURI());
+    return entry == null ? 0 : entry.referenceCount;
+  }
+
+  /**
+   * @return the statistics of each open connection pool of the shared clients
+   */
+  public static synchronized List<PoolMetrics> getPoolMetrics() {
+    val metrics = ImmutableList.<PoolMetrics> builder();
+    for (val entry : entries.values()) {
+      metrics.addAll(entry.listener.getMetrics());
+    }
+
+    return metrics.build();
+  }
+
+  public static void logMetrics() {
+    for (val metrics : getPoolMetrics()) {
+      log.info("Mongo connection pool {}", metrics);
+    }
+  }
+
+  @RequiredArgsConstructor
+  private static class Entry {
+
+    final MongoClient client;
+    final PoolMetricsListener listener;
+    int referenceCount;
+
+  }
+
+  /**
+   * Keeps the statistics of the pools of one client, of which there is one per server. Events arrive on driver
+   * threads.
+   */
+  private static class PoolMetricsListener extends ConnectionPoolListenerAdapter {
+
+    final Map<ServerAddress, PoolCounts> pools = Maps.newConcurrentMap();
+
+    @Override
+    public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+      pools.put(event.getServerId().getAddress(), new PoolCounts(event.getSettings().getMaxSize()));
+    }
+
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+      pools.remove(event.getServerId().getAddress());
+    }
+
+    @Override
+    public void connectionAdded(ConnectionAddedEvent event) {
+      update(event.getConnectionId(), counts -> counts.size.incrementAndGet());
+    }
+
+    @Override
+    public void connectionRemoved(ConnectionRemovedEvent event) {
+      update(event.getConnectionId(), counts -> counts.size.decrementAndGet());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+      update(event.getConnectionId(), counts -> counts.checkedOutCount.incrementAndGet());
+    }
+
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+      update(event.getConnectionId(), counts -> counts.checkedOutCount.decrementAndGet());
+    }
+
+    List<PoolMetrics> getMetrics() {
+      val metrics = ImmutableList.<PoolMetrics> builder();
+      pools.forEach((address, counts) -> metrics.add(
+          new PoolMetrics(address.toString(), counts.size.get(), counts.checkedOutCount.get(), counts.maxSize)));
+
+      return metrics.build();
+    }
+
+    private void update(ConnectionId connectionId, Consumer<PoolCounts> update) {
+      val counts = pools.get(connectionId.getServerId().getAddress());
+      if (counts != null) {
+        update.accept(counts);
+      }
+    }
+
+  }
+
+  @RequiredArgsConstructor
+  private static class PoolCounts {
+
+    final AtomicInteger size = new AtomicInteger();
+    final AtomicInteger checkedOutCount = new AtomicInteger();
+    final int maxSize;
+
+  }
+
+  @Value
+  public static class PoolMetrics {
+
+    String address;
+    int size;
+    int checkedOutCount;
+    int maxSize;
+
+  }
+
+}
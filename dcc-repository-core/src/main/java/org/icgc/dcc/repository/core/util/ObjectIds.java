@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.icgc.dcc.common.core.util.UUID5;
+
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+
+/**
+ * Generates repository object ids. These are name based (version 5) UUIDs of the {@code '/'} joined parts in the
+ * {@link UUID5#getNamespace()} namespace.
+ * <p>
+ * Equivalent to {@code UUID5.fromUTF8(UUID5.getNamespace(), Joiner.on('/').join(parts)).toString()} but encodes the
+ * parts directly into a reusable per-thread buffer and digest so that the only allocation per id is the result.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ObjectIds {
+
+  /**
+   * Constants.
+   */
+  private static final byte SEPARATOR = '/';
+  private static final byte REPLACEMENT = '?';
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final byte[] NAMESPACE = toBytes(UUID5.getNamespace());
+
+  /**
+   * State.
+   */
+  private static final ThreadLocal<Generator> GENERATOR = ThreadLocal.withInitial(Generator::new);
+
+  public static String objectId(@NonNull String... parts) {
+    return GENERATOR.get().generate(parts);
+  }
+
+  private static byte[] toBytes(UUID uuid) {
+    val bytes = new byte[16];
+    putLong(bytes, 0, uuid.getMostSignificantBits());
+    putLong(bytes, 8, uuid.getLeastSignificantBits());
+
+    return bytes;
+  }
+
+  private static void putLong(byte[] bytes, int offset, long value) {
+    for (int i = 7; i >= 0; i--) {
+      bytes[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static class Generator {
+
+    /**
+     * Constants.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    /**
+     * State.
+     */
+    private final MessageDigest digest = createDigest();
+    private final byte[] hash = new byte[20];
+    private final char[] chars = new char[36];
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+    @SneakyThrows
+    private String generate(String... parts) {
+      int length = 0;
+      for (int i = 0; i < parts.length; i++) {
+        if (i > 0) {
+          ensureCapacity(length + 1);
+          buffer[length++] = SEPARATOR;
+        }
+
+        length = encode(checkNotNull(parts[i], "Object id part %s is null", i), length);
+      }
+
+      digest.reset();
+      digest.update(NAMESPACE);
+      digest.update(buffer, 0, length);
+      digest.digest(hash, 0, hash.length);
+
+      // Version 5 and IETF variant
+      hash[6] = (byte) ((hash[6] & 0x0f) | 0x50);
+      hash[8] = (byte) ((hash[8] & 0x3f) | 0x80);
+
+      return format();
+    }
+
+    /**
+     * Encodes {@code value} as UTF-8 at {@code offset}, replacing malformed surrogates like {@link String#getBytes}.
+     */
+    private int encode(String value, int offset) {
+      // At most 3 bytes per char
+      ensureCapacity(offset + 3 * value.length());
+
+      int i = 0;
+      val n = value.length();
+      while (i < n) {
+        val c = value.charAt(i++);
+        if (c < 0x80) {
+          buffer[offset++] = (byte) c;
+        } else if (c < 0x800) {
+          buffer[offset++] = (byte) (0xc0 | (c >> 6));
+          buffer[offset++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i < n && Character.isLowSurrogate(value.charAt(i))) {
+          val codePoint = Character.toCodePoint(c, value.charAt(i++));
+          buffer[offset++] = (byte) (0xf0 | (codePoint >> 18));
+          buffer[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+          buffer[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+          buffer[offset++] = (byte) (0x80 | (codePoint & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+          buffer[offset++] = REPLACEMENT;
+        } else {
+          buffer[offset++] = (byte) (0xe0 | (c >> 12));
+          buffer[offset++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+          buffer[offset++] = (byte) (0x80 | (c & 0x3f));
+        }
+      }
+
+      return offset;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(capacity, 2 * buffer.length));
+      }
+    }
+
+    private String format() {
+      int position = 0;
+      for (int i = 0; i < 16; i++) {
+        if (i == 4 || i == 6 || i == 8 || i == 10) {
+          chars[position++] = '-';
+        }
+
+        chars[position++] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+        chars[position++] = HEX_DIGITS[hash[i] & 0x0f];
+      }
+
+      return new String(chars);
+    }
+
+    @SneakyThrows
+    private static MessageDigest createDigest() {
+      return MessageDigest.getInstance("SHA-1");
+    }
+
+  }
+
+}
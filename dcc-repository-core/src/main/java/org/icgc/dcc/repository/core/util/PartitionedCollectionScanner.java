@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Stopwatch.createStarted;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.jongo.Find;
+import org.jongo.MongoCollection;
+import org.jongo.MongoCursor;
+import org.jongo.ResultHandler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mongodb.BasicDBObject;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.Value;
+import lombok.val;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads a collection on multiple threads by splitting it into contiguous ranges of a partition field.
+ * <p>
+ * Each range is read by its own cursor and unmarshalled on its own thread. Results are handed to the consumer on the
+ * calling thread through a bounded queue, so the consumer need not be thread safe but must not depend on order. The
+ * partition field should be indexed and present in every document, which is always the case for {@code _id}.
+ */
+@Slf4j
+public class PartitionedCollectionScanner {
+
+  /**
+   * Constants.
+   */
+  public static final String DEFAULT_PARTITION_FIELD = "_id";
+  public static final int DEFAULT_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+  public static final int DEFAULT_QUEUE_SIZE = 1000;
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+  private static final Object END_OF_PARTITION = new Object();
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final MongoCollection collection;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private String partitionField = DEFAULT_PARTITION_FIELD;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int threadCount = DEFAULT_THREAD_COUNT;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int queueSize = DEFAULT_QUEUE_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private String projection;
+
+  public PartitionedCollectionScanner(@NonNull MongoCollection collection) {
+    this.collection = collection;
+  }
+
+  /**
+   * Reads every document of the collection as {@code type} and passes it to {@code consumer} on the calling thread.
+   * 
+   * @return the number of documents read
+   */
+  public <T> int scan(@NonNull Class<T> type, @NonNull Consumer<? super T> consumer) {
+    return read(find -> find.as(type), consumer);
+  }
+
+  /**
+   * Reads every document of the collection, mapped by {@code handler} on the reading threads, and passes it to
+   * {@code consumer} on the calling thread.
+   * 
+   * @return the number of documents read
+   */
+  public <T> int scan(@NonNull ResultHandler<T> handler, @NonNull Consumer<? super T> consumer) {
+    return read(find -> find.map(handler), consumer);
+  }
+
+  @SneakyThrows
+  private <T> int read(Function<Find, MongoCursor<T>> reader, Consumer<? super T> consumer) {
+    checkArgument(threadCount > 0, "Thread count must be positive: %s", threadCount);
+    val watch = createStarted();
+    val partitions = createPartitions();
+    log.info("Scanning '{}' in {} partitions on {} threads...", collection.getName(), partitions.size(), threadCount);
+
+    val queue = new ArrayBlockingQueue<Object>(queueSize);
+    val executor = Executors.newFixedThreadPool(Math.min(threadCount, partitions.size()),
+        new ThreadFactoryBuilder().setNameFormat("scan-" + collection.getName() + "-%d").setDaemon(true).build());
+
+    val state = new ScanState();
+    try {
+      for (val partition : partitions) {
+        executor.execute(() -> readPartition(partition, reader, queue, state));
+      }
+
+      int documentCount = 0;
+      int remaining = partitions.size();
+      while (remaining > 0) {
+        val value = queue.poll(1, SECONDS);
+        if (value == null) {
+          state.checkError();
+        } else if (value == END_OF_PARTITION) {
+          remaining--;
+        } else {
+          @SuppressWarnings("unchecked")
+          val document = (T) value;
+          consumer.accept(document);
+
+          documentCount++;
+        }
+      }
+
+      state.checkError();
+      log.info("Finished scanning {} '{}' documents in {}", formatCount(documentCount), collection.getName(), watch);
+
+      return documentCount;
+    } finally {
+      // Unblocks readers when the consumer failed
+      state.aborted = true;
+      executor.shutdownNow();
+    }
+  }
+
+  private <T> void readPartition(Partition partition, Function<Find, MongoCursor<T>> reader,
+      BlockingQueue<Object> queue, ScanState state) {
+    try {
+      val find = collection.find(partition.getQuery(), partition.getParameters())
+          .with(cursor -> cursor.batchSize(batchSize));
+      if (projection != null) {
+        find.projection(projection);
+      }
+
+      try (MongoCursor<T> documents = reader.apply(find)) {
+        for (val document : documents) {
+          if (state.aborted) {
+            return;
+          }
+
+          queue.put(document);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (Throwable t) {
+      log.error("Error reading partition " + partition + ": ", t);
+      state.error = t;
+    }
+
+    try {
+      queue.put(END_OF_PARTITION);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private List<Partition> createPartitions() {
+    val boundaries = getBoundaries();
+    if (boundaries.isEmpty()) {
+      return ImmutableList.of(new Partition("{}"));
+    }
+
+    // Bounds are passed as parameters so that Jongo marshals them with their original types (e.g. ObjectId)
+    val field = "'" + partitionField + "'";
+    val partitions = Lists.<Partition> newArrayList();
+    partitions.add(new Partition("{" + field + ": {$lt: #}}", boundaries.get(0)));
+    for (int i = 1; i < boundaries.size(); i++) {
+      partitions.add(new Partition("{" + field + ": {$gte: #, $lt: #}}", boundaries.get(i - 1), boundaries.get(i)));
+    }
+    partitions.add(new Partition("{" + field + ": {$gte: #}}", boundaries.get(boundaries.size() - 1)));
+
+    return partitions;
+  }
+
+  private List<Object> getBoundaries() {
+    val dbCollection = collection.getDBCollection();
+    val count = dbCollection.count();
+    val partitionCount = threadCount;
+
+    // Approximate quantiles of the partition field. Skipping over an index is cheap relative to the scan itself.
+    val boundaries = Lists.<Object> newArrayList();
+    for (int i = 1; i < partitionCount && count >= partitionCount; i++) {
+      val keys = new BasicDBObject(partitionField, 1);
+      val cursor = dbCollection.find(new BasicDBObject(), keys)
+          .sort(keys)
+          .skip((int) (i * count / partitionCount))
+          .limit(1);
+
+      try {
+        if (cursor.hasNext()) {
+          val boundary = cursor.next().get(partitionField);
+          if (boundary != null && (boundaries.isEmpty() || !boundary.equals(boundaries.get(boundaries.size() - 1)))) {
+            boundaries.add(boundary);
+          }
+        }
+      } finally {
+        cursor.close();
+      }
+    }
+
+    return boundaries;
+  }
+
+  @Value
+  private static class Partition {
+
+    String query;
+    Object[] parameters;
+
+    Partition(String query, Object... parameters) {
+      this.query = query;
+      this.parameters = parameters;
+    }
+
+  }
+
+  private static class ScanState {
+
+    volatile boolean aborted;
+    volatile Throwable error;
+
+    void checkError() {
+      if (error != null) {
+        throw new IllegalStateException("Partitioned scan failed", error);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.core.model.RepositoryFile.AnalysisMethod;
+import org.icgc.dcc.repository.core.model.RepositoryFile.DataBundle;
+import org.icgc.dcc.repository.core.model.RepositoryFile.DataCategorization;
+import org.icgc.dcc.repository.core.model.RepositoryFile.Donor;
+import org.icgc.dcc.repository.core.model.RepositoryFile.FileCopy;
+import org.icgc.dcc.repository.core.model.RepositoryFile.IndexFile;
+import org.icgc.dcc.repository.core.model.RepositoryFile.OtherIdentifiers;
+import org.icgc.dcc.repository.core.model.RepositoryFile.ReferenceGenome;
+
+import com.google.common.collect.Lists;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Hand written mapping between {@link RepositoryFile} and the driver's BSON document model.
+ * <p>
+ * Produces exactly the documents of the Jongo mapper configured in {@link Jongos}: snake case field names in
+ * declaration order with {@code null}s included. When decoding, absent fields keep their default and present
+ * {@code null}s are set, as with Jackson. This avoids the BSON to JSON to POJO round trip of the Jongo mapper.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class RepositoryFileCodec {
+
+  public static DBObject encode(@NonNull RepositoryFile file) {
+    return new BasicDBObject()
+        .append("id", file.getId())
+        .append("object_id", file.getObjectId())
+        .append("study", file.getStudy())
+        .append("access", file.getAccess())
+        .append("data_bundle", encode(file.getDataBundle()))
+        .append("analysis_method", encode(file.getAnalysisMethod()))
+        .append("data_categorization", encode(file.getDataCategorization()))
+        .append("reference_genome", encode(file.getReferenceGenome()))
+        .append("file_copies", encodeFileCopies(file.getFileCopies()))
+        .append("donors", encodeDonors(file.getDonors()));
+  }
+
+  public static RepositoryFile decode(@NonNull DBObject object) {
+    val file = new RepositoryFile();
+    decode(object, "id", RepositoryFileCodec::asString, file::setId);
+    decode(object, "object_id", RepositoryFileCodec::asString, file::setObjectId);
+    decode(object, "study", RepositoryFileCodec::asStrings, file::setStudy);
+    decode(object, "access", RepositoryFileCodec::asString, file::setAccess);
+    decode(object, "data_bundle", RepositoryFileCodec::decodeDataBundle, file::setDataBundle);
+    decode(object, "analysis_method", RepositoryFileCodec::decodeAnalysisMethod, file::setAnalysisMethod);
+    decode(object, "data_categorization", RepositoryFileCodec::decodeDataCategorization, file::setDataCategorization);
+    decode(object, "reference_genome", RepositoryFileCodec::decodeReferenceGenome, file::setReferenceGenome);
+    decode(object, "file_copies", value -> asList(value, RepositoryFileCodec::decodeFileCopy), file::setFileCopies);
+    decode(object, "donors", value -> asList(value, RepositoryFileCodec::decodeDonor), file::setDonors);
+
+    return file;
+  }
+
+  //
+  // Encoding
+  //
+
+  private static DBObject encode(DataBundle dataBundle) {
+    return dataBundle == null ? null : new BasicDBObject()
+        .append("data_bundle_id", dataBundle.getDataBundleId());
+  }
+
+  private static DBObject encode(AnalysisMethod analysisMethod) {
+    return analysisMethod == null ? null : new BasicDBObject()
+        .append("analysis_type", analysisMethod.getAnalysisType())
+        .append("software", analysisMethod.getSoftware());
+  }
+
+  private static DBObject encode(DataCategorization dataCategorization) {
+    return dataCategorization == null ? null : new BasicDBObject()
+        .append("data_type", dataCategorization.getDataType())
+        .append("experimental_strategy", dataCategorization.getExperimentalStrategy());
+  }
+
+  private static DBObject encode(ReferenceGenome referenceGenome) {
+    return referenceGenome == null ? null : new BasicDBObject()
+        .append("genome_build", referenceGenome.getGenomeBuild())
+        .append("reference_name", referenceGenome.getReferenceName())
+        .append("download_url", referenceGenome.getDownloadUrl());
+  }
+
+  private static List<DBObject> encodeFileCopies(List<FileCopy> fileCopies) {
+    if (fileCopies == null) {
+      return null;
+    }
+
+    val values = Lists.<DBObject> newArrayListWithCapacity(fileCopies.size());
+    for (val fileCopy : fileCopies) {
+      values.add(encode(fileCopy));
+    }
+
+    return values;
+  }
+
+  private static DBObject encode(FileCopy fileCopy) {
+    return fileCopy == null ? null : new BasicDBObject()
+        .append("file_name", fileCopy.getFileName())
+        .append("file_format", fileCopy.getFileFormat())
+        .append("file_size", fileCopy.getFileSize())
+        .append("file_md5sum", fileCopy.getFileMd5sum())
+        .append("last_modified", fileCopy.getLastModified())
+        .append("index_file", encode(fileCopy.getIndexFile()))
+        .append("repo_data_bundle_id", fileCopy.getRepoDataBundleId())
+        .append("repo_file_id", fileCopy.getRepoFileId())
+        .append("repo_data_set_ids", fileCopy.getRepoDataSetIds())
+        .append("repo_type", fileCopy.getRepoType())
+        .append("repo_org", fileCopy.getRepoOrg())
+        .append("repo_name", fileCopy.getRepoName())
+        .append("repo_code", fileCopy.getRepoCode())
+        .append("repo_country", fileCopy.getRepoCountry())
+        .append("repo_base_url", fileCopy.getRepoBaseUrl())
+        .append("repo_data_path", fileCopy.getRepoDataPath())
+        .append("repo_metadata_path", fileCopy.getRepoMetadataPath());
+  }
+
+  private static DBObject encode(IndexFile indexFile) {
+    return indexFile == null ? null : new BasicDBObject()
+        .append("id", indexFile.getId())
+        .append("object_id", indexFile.getObjectId())
+        .append("file_name", indexFile.getFileName())
+        .append("file_format", indexFile.getFileFormat())
+        .append("file_size", indexFile.getFileSize())
+        .append("file_md5sum", indexFile.getFileMd5sum())
+        .append("repo_file_id", indexFile.getRepoFileId());
+  }
+
+  private static List<DBObject> encodeDonors(List<Donor> donors) {
+    if (donors == null) {
+      return null;
+    }
+
+    val values = Lists.<DBObject> newArrayListWithCapacity(donors.size());
+    for (val donor : donors) {
+      values.add(encode(donor));
+    }
+
+    return values;
+  }
+
+  private static DBObject encode(Donor donor) {
+    return donor == null ? null : new BasicDBObject()
+        .append("project_code", donor.getProjectCode())
+        .append("program", donor.getProgram())
+        .append("study", donor.getStudy())
+        .append("primary_site", donor.getPrimarySite())
+        .append("donor_id", donor.getDonorId())
+        .append("specimen_id", donor.getSpecimenId())
+        .append("specimen_type", donor.getSpecimenType())
+        .append("sample_id", donor.getSampleId())
+        .append("matched_control_sample_id", donor.getMatchedControlSampleId())
+        .append("submitted_donor_id", donor.getSubmittedDonorId())
+        .append("submitted_specimen_id", donor.getSubmittedSpecimenId())
+        .append("submitted_sample_id", donor.getSubmittedSampleId())
+        .append("other_identifiers", encode(donor.getOtherIdentifiers()));
+  }
+
+  private static DBObject encode(OtherIdentifiers otherIdentifiers) {
+    return otherIdentifiers == null ? null : new BasicDBObject()
+        .append("tcga_participant_barcode", otherIdentifiers.getTcgaParticipantBarcode())
+        .append("tcga_sample_barcode", otherIdentifiers.getTcgaSampleBarcode())
+        .append("tcga_aliquot_barcode", otherIdentifiers.getTcgaAliquotBarcode());
+  }
+
+  //
+  // Decoding
+  //
+
+  private static DataBundle decodeDataBundle(Object value) {
+    val object = (DBObject) value;
+    val dataBundle = new DataBundle();
+    decode(object, "data_bundle_id", RepositoryFileCodec::asString, dataBundle::setDataBundleId);
+
+    return dataBundle;
+  }
+
+  private static AnalysisMethod decodeAnalysisMethod(Object value) {
+    val object = (DBObject) value;
+    val analysisMethod = new AnalysisMethod();
+    decode(object, "analysis_type", RepositoryFileCodec::asString, analysisMethod::setAnalysisType);
+    decode(object, "software", RepositoryFileCodec::asString, analysisMethod::setSoftware);
+
+    return analysisMethod;
+  }
+
+  private static DataCategorization decodeDataCategorization(Object value) {
+    val object = (DBObject) value;
+    val dataCategorization = new DataCategorization();
+    decode(object, "data_type", RepositoryFileCodec::asString, dataCategorization::setDataType);
+    decode(object, "experimental_strategy", RepositoryFileCodec::asString,
+        dataCategorization::setExperimentalStrategy);
+
+    return dataCategorization;
+  }
+
+  private static ReferenceGenome decodeReferenceGenome(Object value) {
+    val object = (DBObject) value;
+    val referenceGenome = new ReferenceGenome();
+    decode(object, "genome_build", RepositoryFileCodec::asString, referenceGenome::setGenomeBuild);
+    decode(object, "reference_name", RepositoryFileCodec::asString, referenceGenome::setReferenceName);
+    decode(object, "download_url", RepositoryFileCodec::asString, referenceGenome::setDownloadUrl);
+
+    return referenceGenome;
+  }
+
+  private static FileCopy decodeFileCopy(Object value) {
+    val object = (DBObject) value;
+    val fileCopy = new FileCopy();
+    decode(object, "file_name", RepositoryFileCodec::asString, fileCopy::setFileName);
+    decode(object, "file_format", RepositoryFileCodec::asString, fileCopy::setFileFormat);
+    decode(object, "file_size", RepositoryFileCodec::asLong, fileCopy::setFileSize);
+    decode(object, "file_md5sum", RepositoryFileCodec::asString, fileCopy::setFileMd5sum);
+    decode(object, "last_modified", RepositoryFileCodec::asLong, fileCopy::setLastModified);
+    decode(object, "index_file", RepositoryFileCodec::decodeIndexFile, fileCopy::setIndexFile);
+    decode(object, "repo_data_bundle_id", RepositoryFileCodec::asString, fileCopy::setRepoDataBundleId);
+    decode(object, "repo_file_id", RepositoryFileCodec::asString, fileCopy::setRepoFileId);
+    decode(object, "repo_data_set_ids", RepositoryFileCodec::asStrings, fileCopy::setRepoDataSetIds);
+    decode(object, "repo_type", RepositoryFileCodec::asString, fileCopy::setRepoType);
+    decode(object, "repo_org", RepositoryFileCodec::asString, fileCopy::setRepoOrg);
+    decode(object, "repo_name", RepositoryFileCodec::asString, fileCopy::setRepoName);
+    decode(object, "repo_code", RepositoryFileCodec::asString, fileCopy::setRepoCode);
+    decode(object, "repo_country", RepositoryFileCodec::asString, fileCopy::setRepoCountry);
+    decode(object, "repo_base_url", RepositoryFileCodec::asString, fileCopy::setRepoBaseUrl);
+    decode(object, "repo_data_path", RepositoryFileCodec::asString, fileCopy::setRepoDataPath);
+    decode(object, "repo_metadata_path", RepositoryFileCodec::asString, fileCopy::setRepoMetadataPath);
+
+    return fileCopy.internRepository();
+  }
+
+  private static IndexFile decodeIndexFile(Object value) {
+    val object = (DBObject) value;
+    val indexFile = new IndexFile();
+    decode(object, "id", RepositoryFileCodec::asString, indexFile::setId);
+    decode(object, "object_id", RepositoryFileCodec::asString, indexFile::setObjectId);
+    decode(object, "file_name", RepositoryFileCodec::asString, indexFile::setFileName);
+    decode(object, "file_format", RepositoryFileCodec::asString, indexFile::setFileFormat);
+    decode(object, "file_size", RepositoryFileCodec::asLong, indexFile::setFileSize);
+    decode(object, "file_md5sum", RepositoryFileCodec::asString, indexFile::setFileMd5sum);
+    decode(object, "repo_file_id", RepositoryFileCodec::asString, indexFile::setRepoFileId);
+
+    return indexFile;
+  }
+
+  private static Donor decodeDonor(Object value) {
+    val object = (DBObject) value;
+    val donor = new Donor();
+    decode(object, "project_code", RepositoryFileCodec::asString, donor::setProjectCode);
+    decode(object, "program", RepositoryFileCodec::asString, donor::setProgram);
+    decode(object, "study", RepositoryFileCodec::asString, donor::setStudy);
+    decode(object, "primary_site", RepositoryFileCodec::asString, donor::setPrimarySite);
+    decode(object, "donor_id", RepositoryFileCodec::asString, donor::setDonorId);
+    decode(object, "specimen_id", RepositoryFileCodec::asStrings, donor::setSpecimenId);
+    decode(object, "specimen_type", RepositoryFileCodec::asStrings, donor::setSpecimenType);
+    decode(object, "sample_id", RepositoryFileCodec::asStrings, donor::setSampleId);
+    decode(object, "matched_control_sample_id", RepositoryFileCodec::asString, donor::setMatchedControlSampleId);
+    decode(object, "submitted_donor_id", RepositoryFileCodec::asString, donor::setSubmittedDonorId);
+    decode(object, "submitted_specimen_id", RepositoryFileCodec::asStrings, donor::setSubmittedSpecimenId);
+    decode(object, "submitted_sample_id", RepositoryFileCodec::asStrings, donor::setSubmittedSampleId);
+    decode(object, "other_identifiers", RepositoryFileCodec::decodeOtherIdentifiers, donor::setOtherIdentifiers);
+
+    return donor;
+  }
+
+  private static OtherIdentifiers decodeOtherIdentifiers(Object value) {
+    val object = (DBObject) value;
+    val otherIdentifiers = new OtherIdentifiers();
+    decode(object, "tcga_participant_barcode", RepositoryFileCodec::asString,
+        otherIdentifiers::setTcgaParticipantBarcode);
+    decode(object, "tcga_sample_barcode", RepositoryFileCodec::asStrings, otherIdentifiers::setTcgaSampleBarcode);
+    decode(object, "tcga_aliquot_barcode", RepositoryFileCodec::asStrings, otherIdentifiers::setTcgaAliquotBarcode);
+
+    return otherIdentifiers;
+  }
+
+  /**
+   * Sets {@code fieldName} through {@code setter} if present, leaving the default otherwise.
+   */
+  private static <T> void decode(DBObject object, String fieldName, Function<Object, T> converter,
+      Consumer<T> setter) {
+    if (object.containsField(fieldName)) {
+      val value = object.get(fieldName);
+      setter.accept(value == null ? null : converter.apply(value));
+    }
+  }
+
+  private static String asString(Object value) {
+    return (String) value;
+  }
+
+  private static Long asLong(Object value) {
+    // Small values may have been stored as 32 bit integers
+    return ((Number) value).longValue();
+  }
+
+  private static List<String> asStrings(Object value) {
+    return asList(value, RepositoryFileCodec::asString);
+  }
+
+  private static <T> List<T> asList(Object value, Function<Object, T> converter) {
+    if (value == null) {
+      return null;
+    }
+
+    val values = (List<?>) value;
+    val list = Lists.<T> newArrayListWithCapacity(values.size());
+    for (val element : values) {
+      list.add(element == null ? null : converter.apply(element));
+    }
+
+    return list;
+  }
+
+}
@@ -18,11 +18,14 @@
 package org.icgc.dcc.repository.core.util;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Stopwatch.createStarted;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand.ResetType;
 import org.eclipse.jgit.api.errors.CanceledException;
 import org.eclipse.jgit.api.errors.DetachedHeadException;
 import org.eclipse.jgit.api.errors.GitAPIException;
@@ -33,7 +36,13 @@ import org.eclipse.jgit.api.errors.RefNotAdvertisedException;
 import org.eclipse.jgit.api.errors.RefNotFoundException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.api.errors.WrongRepositoryStateException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 
+import lombok.Cleanup;
 import lombok.NonNull;
 import lombok.Value;
 import lombok.val;
@@ -50,19 +59,62 @@ public class TransferMetadataRepository {
   private final String repoUrl;
   @NonNull
   private final File repoDir;
-  private final boolean forceClone; // To be safe on problematic repos such as EGA
+  @NonNull
+  private final UpdateStrategy strategy;
 
   public void update() throws GitAPIException, IOException {
-    if (forceClone && repoDir.exists()) {
-      log.info("forceClone is set to true. Deleting {}...", repoDir);
+    val watch = createStarted();
+    if (strategy == UpdateStrategy.CLONE && repoDir.exists()) {
+      log.info("Update strategy is {}. Deleting {}...", strategy, repoDir);
       delete(repoDir);
     }
 
-    if (repoDir.exists()) {
-      gitPull();
-    } else {
+    if (!repoDir.exists()) {
       gitClone();
+    } else if (strategy == UpdateStrategy.FETCH_RESET) {
+      gitFetchReset();
+    } else {
+      gitPull();
     }
+
+    log.info("Updated '{}' using {} in {}", repoDir, strategy, watch);
+  }
+
+  /**
+   * Returns the id of the commit currently checked out.
+   */
+  public String getHeadCommitId() throws IOException {
+    @Cleanup
+    val git = Git.open(repoDir);
+    return git.getRepository().resolve(Constants.HEAD).name();
+  }
+
+  public boolean hasCommit(@NonNull String commitId) throws IOException {
+    if (!ObjectId.isId(commitId)) {
+      return false;
+    }
+
+    @Cleanup
+    val git = Git.open(repoDir);
+    return git.getRepository().hasObject(ObjectId.fromString(commitId));
+  }
+
+  /**
+   * Lists the paths changed between two commits. Renames are reported as a delete and an add.
+   */
+  public List<DiffEntry> diff(@NonNull String fromCommitId, @NonNull String toCommitId)
+      throws GitAPIException, IOException {
+    @Cleanup
+    val git = Git.open(repoDir);
+    @Cleanup
+    val reader = git.getRepository().newObjectReader();
+    @Cleanup
+    val walk = new RevWalk(reader);
+
+    val fromTree = new CanonicalTreeParser(null, reader, walk.parseCommit(ObjectId.fromString(fromCommitId)).getTree());
+    val toTree = new CanonicalTreeParser(null, reader, walk.parseCommit(ObjectId.fromString(toCommitId)).getTree());
+
+    return git.diff().setOldTree(fromTree).setNewTree(toTree).setShowNameAndStatusOnly(true).call();
   }
 
   private void gitClone() throws GitAPIException, InvalidRemoteException, TransportException {
@@ -73,6 +125,31 @@ public class TransferMetadataRepository {
     log.info("Finished cloning.");
   }
 
+  private void gitFetchReset() throws GitAPIException, IOException {
+    try {
+      @Cleanup
+      val git = Git.open(repoDir);
+
+      log.info("Fetching '{}' in '{}'...", repoUrl, repoDir);
+      git.fetch().setRemoveDeletedRefs(true).call();
+
+      // Discard anything that diverged locally, including untracked files
+      val remoteBranch = Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + git.getRepository().getBranch();
+      log.info("Resetting '{}' to '{}'...", repoDir, remoteBranch);
+      git.reset().setMode(ResetType.HARD).setRef(remoteBranch).call();
+      git.clean().setCleanDirectories(true).call();
+      log.info("Finished fetching and resetting.");
+    } catch (TransportException e) {
+      // Remote is unreachable so keep what we have
+      throw e;
+    } catch (GitAPIException | IOException e) {
+      // Repository is beyond repair so start over
+      log.warn("Could not fetch and reset '{}', recloning: {}", repoDir, e.getMessage());
+      delete(repoDir);
+      gitClone();
+    }
+  }
+
   private void gitPull() throws GitAPIException, WrongRepositoryStateException, InvalidConfigurationException,
       DetachedHeadException, InvalidRemoteException, CanceledException, RefNotFoundException, RefNotAdvertisedException,
       NoHeadException, TransportException, IOException {
@@ -94,4 +171,23 @@ public class TransferMetadataRepository {
     checkState(file.delete(), "Failed to delete file: %s", file);
   }
 
+  public enum UpdateStrategy {
+
+    /**
+     * Pulls into the existing working copy.
+     */
+    PULL,
+
+    /**
+     * Fetches and hard resets the existing working copy, repairing local corruption without recloning.
+     */
+    FETCH_RESET,
+
+    /**
+     * Deletes the existing working copy and clones from scratch.
+     */
+    CLONE;
+
+  }
+
 }
@@ -23,6 +23,7 @@ import static org.icgc.dcc.repository.core.model.RepositoryCollection.FILE;
 import org.icgc.dcc.repository.core.model.RepositoryCollection;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.util.AbstractJongoWriter;
+import org.icgc.dcc.repository.core.util.RepositoryFileCodec;
 import org.jongo.MongoCollection;
 
 import com.mongodb.MongoClientURI;
@@ -82,7 +83,7 @@ public class RepositoryFileWriter extends AbstractJongoWriter<Iterable<Repositor
   }
 
   protected void saveFile(RepositoryFile file) {
-    collection.save(file);
+    collection.getDBCollection().insert(RepositoryFileCodec.encode(file));
   }
 
 }
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import lombok.val;
+
+public class FileNameIndexTest {
+
+  @Test
+  public void testGetCompanion() {
+    val files = Arrays.asList("a.bam", "a.bam.bai", "b.vcf.gz", "b.vcf.gz.tbi", "b.vcf.gz.idx", "gnos.xml");
+    val index = FileNameIndex.index(files, Function.identity());
+
+    assertThat(index.getCompanion("a.bam", ".bai").get()).isEqualTo("a.bam.bai");
+    assertThat(index.getCompanion("a.bam", ".tbi").isPresent()).isFalse();
+    assertThat(index.getCompanion("b.vcf.gz", ".tbi").get()).isEqualTo("b.vcf.gz.tbi");
+    assertThat(index.getCompanion("b.vcf.gz", ".idx").get()).isEqualTo("b.vcf.gz.idx");
+    assertThat(index.getCompanion("gnos", ".xml").get()).isEqualTo("gnos.xml");
+  }
+
+  @Test
+  public void testFirstFileWins() {
+    val files = Arrays.asList(new String[] { "a.bam.bai", "first" }, new String[] { "a.bam.bai", "second" },
+        new String[] { null, "unnamed" });
+    val index = FileNameIndex.index(files, file -> file[0]);
+
+    assertThat(index.getCompanion("a.bam", ".bai").get()[1]).isEqualTo("first");
+  }
+
+}
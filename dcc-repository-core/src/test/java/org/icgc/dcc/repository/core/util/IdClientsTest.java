@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.                             
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.repository.core.util.IdClients.concurrentCachingIdClient;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.icgc.dcc.id.client.core.IdClient;
+import org.junit.Test;
+
+import com.google.common.reflect.AbstractInvocationHandler;
+import com.google.common.reflect.Reflection;
+
+import lombok.val;
+
+public class IdClientsTest {
+
+  @Test
+  public void testConcurrentCachingIdClientCaches() {
+    val calls = new AtomicInteger();
+    val idClient = concurrentCachingIdClient(newIdClient(objectId -> {
+      calls.incrementAndGet();
+      return "FI" + objectId;
+    }));
+
+    assertThat(idClient.createFileId("1")).isEqualTo("FI1");
+    assertThat(idClient.createFileId("1")).isEqualTo("FI1");
+    assertThat(idClient.createFileId("2")).isEqualTo("FI2");
+    assertThat(calls.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testConcurrentCachingIdClientDoesNotCacheEmpty() {
+    val calls = new AtomicInteger();
+    val idClient = concurrentCachingIdClient(newIdClient(objectId -> {
+      calls.incrementAndGet();
+      return null;
+    }));
+
+    assertThat(idClient.getFileId("1")).isEqualTo(Optional.empty());
+    assertThat(idClient.getFileId("1")).isEqualTo(Optional.empty());
+    assertThat(calls.get()).isEqualTo(2);
+  }
+
+  @Test(timeout = 10000)
+  public void testConcurrentCachingIdClientDifferentKeysInParallel() throws Exception {
+    // Each call only returns once both are in flight, which would deadlock if calls were serialized
+    val inFlight = new CountDownLatch(2);
+    val idClient = concurrentCachingIdClient(newIdClient(objectId -> {
+      inFlight.countDown();
+      await(inFlight);
+      return "FI" + objectId;
+    }));
+
+    val executor = Executors.newFixedThreadPool(2);
+    try {
+      val first = executor.submit(() -> idClient.createFileId("1"));
+      val second = executor.submit(() -> idClient.createFileId("2"));
+
+      assertThat(first.get()).isEqualTo("FI1");
+      assertThat(second.get()).isEqualTo("FI2");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Answers {@code createFileId} and {@code getFileId} with {@code fileIds}.
+   */
+  private static IdClient newIdClient(Function<String, String> fileIds) {
+    return Reflection.newProxy(IdClient.class, new AbstractInvocationHandler() {
+
+      @Override
+      protected Object handleInvocation(Object proxy, Method method, Object[] args) {
+        val fileId = fileIds.apply((String) args[0]);
+        return method.getName().equals("getFileId") ? Optional.ofNullable(fileId) : fileId;
+      }
+
+    });
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(5, SECONDS)).isTrue();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
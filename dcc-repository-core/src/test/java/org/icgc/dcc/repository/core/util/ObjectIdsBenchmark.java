@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static org.icgc.dcc.repository.core.util.ObjectIds.objectId;
+
+import java.util.UUID;
+
+import org.icgc.dcc.common.core.util.UUID5;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Stopwatch;
+
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Ignore("For development only")
+public class ObjectIdsBenchmark {
+
+  /**
+   * Constants.
+   */
+  private static final int ID_COUNT = 1000000;
+  private static final int RUN_COUNT = 5;
+
+  @Test
+  public void testThroughput() {
+    val gnosId = UUID.randomUUID().toString();
+    val fileName = UUID.randomUUID() + ".consensus.20160830.somatic.snv_mnv.vcf.gz.tbi";
+
+    // Consumed to keep the loops from being optimized away
+    int hash = 0;
+    for (int i = 0; i < RUN_COUNT; i++) {
+      val uuid5Watch = Stopwatch.createStarted();
+      for (int j = 0; j < ID_COUNT; j++) {
+        hash += UUID5.fromUTF8(UUID5.getNamespace(), Joiner.on('/').join(gnosId, fileName)).toString().hashCode();
+      }
+      uuid5Watch.stop();
+
+      val objectIdsWatch = Stopwatch.createStarted();
+      for (int j = 0; j < ID_COUNT; j++) {
+        hash += objectId(gnosId, fileName).hashCode();
+      }
+      objectIdsWatch.stop();
+
+      log.info("Run {}: {} ids generated: UUID5 {}, ObjectIds {}", i + 1, ID_COUNT, uuid5Watch, objectIdsWatch);
+    }
+
+    log.info("Hash: {}", hash);
+  }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.repository.core.util.ObjectIds.objectId;
+
+import org.icgc.dcc.common.core.util.UUID5;
+import org.junit.Test;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+
+import lombok.val;
+
+public class ObjectIdsTest {
+
+  @Test
+  public void testObjectId() {
+    assertEquivalent("3dbbb626-66da-43cd-8555-234f40b15a97", "file.bam");
+    assertEquivalent("3dbbb626-66da-43cd-8555-234f40b15a97", "file.bam.bai");
+    assertEquivalent("/tcgafiles/ftp_auth/distro_ftpusers/anonymous/tumor", "archive.tar.gz");
+    assertEquivalent("single");
+    assertEquivalent("", "");
+  }
+
+  @Test
+  public void testObjectIdNonAscii() {
+    assertEquivalent("gnos", "caf\u00e9.bam");
+    assertEquivalent("gnos", "\u65e5\u672c.vcf.gz");
+    assertEquivalent("gnos", "\ud83d\ude00.bam");
+    assertEquivalent("gnos", "unpaired\ud83d.bam", "\ude00");
+  }
+
+  @Test
+  public void testObjectIdLong() {
+    // Larger than the initial buffer
+    assertEquivalent(Strings.repeat("a", 1000), Strings.repeat("\u00e9", 1000));
+  }
+
+  private static void assertEquivalent(String... parts) {
+    val expected = UUID5.fromUTF8(UUID5.getNamespace(), Joiner.on('/').join(parts)).toString();
+    assertThat(objectId(parts)).isEqualTo(expected);
+  }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import org.bson.BasicBSONEncoder;
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.jongo.bson.Bson;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.google.common.base.Stopwatch;
+import com.mongodb.DBCollection;
+import com.mongodb.DefaultDBDecoder;
+
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Ignore("For development only")
+public class RepositoryFileCodecBenchmark {
+
+  /**
+   * Constants.
+   */
+  private static final int FILE_COUNT = 200000;
+  private static final int RUN_COUNT = 5;
+
+  @Test
+  public void testThroughput() {
+    val mapper = Jongos.newMapper();
+    val file = new RepositoryFile().setId("FI1").setObjectId("object").setAccess("controlled");
+    file.addFileCopy().setFileName("file.bam").setFileSize(1L).setRepoDataSetId("EGAD1");
+    file.addDonor().setDonorId("DO1").setProjectCode("BRCA-US");
+    val bytes = new BasicBSONEncoder().encode(RepositoryFileCodec.encode(file));
+
+    for (int i = 0; i < RUN_COUNT; i++) {
+      val mapperWatch = Stopwatch.createStarted();
+      for (int j = 0; j < FILE_COUNT; j++) {
+        val object = new DefaultDBDecoder().decode(bytes, (DBCollection) null);
+        val decoded = mapper.getUnmarshaller().unmarshall(Bson.createDocument(object), RepositoryFile.class);
+        mapper.getMarshaller().marshall(decoded).toByteArray();
+      }
+      mapperWatch.stop();
+
+      val codecWatch = Stopwatch.createStarted();
+      for (int j = 0; j < FILE_COUNT; j++) {
+        val object = new DefaultDBDecoder().decode(bytes, (DBCollection) null);
+        val decoded = RepositoryFileCodec.decode(object);
+        new BasicBSONEncoder().encode(RepositoryFileCodec.encode(decoded));
+      }
+      codecWatch.stop();
+
+      log.info("Run {}: {} files read and written: mapper {}, codec {}", i + 1, FILE_COUNT, mapperWatch, codecWatch);
+    }
+  }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.bson.BasicBSONEncoder;
+import org.icgc.dcc.repository.core.model.Repositories;
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.core.model.RepositoryFile.ReferenceGenome;
+import org.jongo.Mapper;
+import org.jongo.bson.Bson;
+import org.junit.Test;
+
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+import com.mongodb.DefaultDBDecoder;
+
+import lombok.val;
+
+public class RepositoryFileCodecTest {
+
+  /**
+   * The mapper this codec replaces.
+   */
+  private final Mapper mapper = Jongos.newMapper();
+
+  @Test
+  public void testEncodeMatchesMapper() {
+    val file = createFile();
+
+    val expected = mapper.getMarshaller().marshall(file).toByteArray();
+    val actual = new BasicBSONEncoder().encode(RepositoryFileCodec.encode(file));
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void testDecodeMatchesMapper() {
+    val file = createFile();
+    val object = roundTrip(RepositoryFileCodec.encode(file));
+
+    val expected = mapper.getUnmarshaller().unmarshall(Bson.createDocument(object), RepositoryFile.class);
+    val actual = RepositoryFileCodec.decode(object);
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void testRoundTrip() {
+    val file = createFile();
+
+    assertThat(RepositoryFileCodec.decode(roundTrip(RepositoryFileCodec.encode(file)))).isEqualTo(file);
+  }
+
+  @Test
+  public void testRoundTripDefaults() {
+    val file = new RepositoryFile();
+
+    assertThat(RepositoryFileCodec.decode(roundTrip(RepositoryFileCodec.encode(file)))).isEqualTo(file);
+  }
+
+  @Test
+  public void testDecodeInternsRepository() {
+    val repository = Repositories.getCollabRepository();
+    val file = new RepositoryFile();
+    file.addFileCopy().setRepository(repository).setRepoDataPath("/oicr.icgc/data/1");
+
+    val fileCopy = RepositoryFileCodec.decode(roundTrip(RepositoryFileCodec.encode(file))).getFileCopies().get(0);
+
+    assertThat(fileCopy.getRepository()).isSameAs(repository);
+    assertThat(fileCopy.getRepoName()).isSameAs(repository.getName());
+    assertThat(fileCopy.getRepoBaseUrl()).isSameAs(repository.getBaseUrl());
+    assertThat(fileCopy.getRepoDataPath()).isEqualTo("/oicr.icgc/data/1");
+  }
+
+  private static DBObject roundTrip(DBObject object) {
+    val bytes = new BasicBSONEncoder().encode(object);
+    return new DefaultDBDecoder().decode(bytes, (DBCollection) null);
+  }
+
+  private static RepositoryFile createFile() {
+    val file = new RepositoryFile()
+        .setId("FI1")
+        .setObjectId("1f1d5bd0-b6a7-5a5c-9e8e-7c4b4a6b1c9d")
+        .setStudy(Arrays.asList("PCAWG"))
+        .setAccess("controlled")
+        .setReferenceGenome(ReferenceGenome.PCAWG);
+
+    file.getDataBundle().setDataBundleId("bundle");
+    file.getAnalysisMethod().setAnalysisType("Variant calling").setSoftware(null);
+    file.getDataCategorization().setDataType("SSM").setExperimentalStrategy("WGS");
+
+    file.addFileCopy()
+        .setFileName("file.vcf.gz")
+        .setFileFormat("VCF")
+        .setFileSize(12345678901L)
+        .setFileMd5sum("md5")
+        .setLastModified(1L)
+        .setRepoDataSetId("EGAD1")
+        .setRepoType("S3")
+        .setRepoOrg("collab")
+        .setRepoCode("collaboratory")
+        .getIndexFile()
+        .setId("FI2")
+        .setFileName("file.vcf.gz.tbi")
+        .setFileFormat("TBI")
+        .setFileSize(100L);
+
+    file.addDonor()
+        .setProjectCode("BRCA-US")
+        .setDonorId("DO1")
+        .setSpecimenId(Arrays.asList("SP1", "SP2"))
+        .setSampleId(Arrays.asList("SA1"))
+        .setSubmittedDonorId("donor")
+        .getOtherIdentifiers()
+        .setTcgaParticipantBarcode("TCGA-01")
+        .setTcgaSampleBarcode(Arrays.asList("TCGA-01-01"));
+
+    return file;
+  }
+
+}
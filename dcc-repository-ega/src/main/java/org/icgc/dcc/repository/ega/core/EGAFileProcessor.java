@@ -97,12 +97,7 @@ public class EGAFileProcessor extends RepositoryFileProcessor {
         .setRepoDataSetId(getMappingDataSetId(file))
         .setFileSize(getMappingFileSize(file))
         .setFileName(null) // Set from run/analysis later on
-        .setRepoType(egaRepository.getType().getId())
-        .setRepoOrg(egaRepository.getSource().getId())
-        .setRepoName(egaRepository.getName())
-        .setRepoCode(egaRepository.getCode())
-        .setRepoCountry(egaRepository.getCountry())
-        .setRepoBaseUrl(egaRepository.getBaseUrl())
+        .setRepository(egaRepository)
         .setRepoMetadataPath(egaRepository.getType().getMetadataPath())
         .setRepoDataPath(egaRepository.getType().getDataPath());
 
@@ -46,6 +46,7 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.FileFormat;
 import org.icgc.dcc.repository.core.model.RepositoryFile.ReferenceGenome;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Software;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Study;
+import org.icgc.dcc.repository.core.util.FileNameIndex;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAAnalysisFile;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAGnosFile;
 import org.icgc.dcc.repository.ega.pcawg.model.EGAPublishedFile;
@@ -56,7 +57,6 @@ import org.icgc.dcc.repository.ega.pcawg.util.EGAGnosFiles;
 import org.icgc.dcc.repository.ega.pcawg.util.EGASampleFiles;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 
@@ -107,6 +107,7 @@ public class EGAFileProcessor extends RepositoryFileProcessor {
     // Create
     //
 
+    val fileIndex = FileNameIndex.index(files, EGAFileProcessor::resolveFileName);
     val egaFiles = ImmutableList.<RepositoryFile> builder();
     for (val file : files) {
       if (isExcludedFile(file)) {
@@ -135,9 +136,9 @@ public class EGAFileProcessor extends RepositoryFileProcessor {
       val baseFileName = resolveBaseFileName(file);
       val objectId = resolveObjectId(analysisId, file);
 
-      val baiFile = resolveBaiFile(files, file);
-      val tbiFile = resolveTbiFile(files, file);
-      val idxFile = resolveIdxFile(files, file);
+      val baiFile = fileIndex.getCompanion(fileName, ".bai");
+      val tbiFile = fileIndex.getCompanion(fileName, ".tbi");
+      val idxFile = fileIndex.getCompanion(fileName, ".idx");
 
       val egaFile = new RepositoryFile()
           .setId(context.ensureFileId(objectId))
@@ -163,12 +164,7 @@ public class EGAFileProcessor extends RepositoryFileProcessor {
           .setRepoDataBundleId(publishedFile.get().getAnalysisId())
           .setRepoDataSetIds(singletonList(publishedFile.get().getDatasetId()))
           .setRepoFileId(publishedFile.get().getFileId())
-          .setRepoType(egaRepository.getType().getId())
-          .setRepoOrg(egaRepository.getSource().getId())
-          .setRepoName(egaRepository.getName())
-          .setRepoCode(egaRepository.getCode())
-          .setRepoCountry(egaRepository.getCountry())
-          .setRepoBaseUrl(egaRepository.getBaseUrl())
+          .setRepository(egaRepository)
           .setRepoMetadataPath(egaRepository.getType().getMetadataPath())
           .setRepoDataPath(egaRepository.getType().getDataPath());
 
@@ -373,23 +369,6 @@ public class EGAFileProcessor extends RepositoryFileProcessor {
     return receiptFile.getTimestamp();
   }
 
-  private static Optional<JsonNode> resolveBaiFile(ArrayNode files, JsonNode file) {
-    return resolveFile(files, file, ".bai");
-  }
-
-  private static Optional<JsonNode> resolveTbiFile(ArrayNode files, JsonNode file) {
-    return resolveFile(files, file, ".tbi");
-  }
-
-  private static Optional<JsonNode> resolveIdxFile(ArrayNode files, JsonNode file) {
-    return resolveFile(files, file, ".idx");
-  }
-
-  private static Optional<JsonNode> resolveFile(ArrayNode files, JsonNode file, String extension) {
-    val targetFileName = resolveFileName(file) + extension;
-    return stream(files).filter(f -> resolveFileName(f).equals(targetFileName)).findFirst();
-  }
-
   private static ObjectNode resolveSampleAttributes(EGASubmission submission) {
     val sampleRef = getSampleRef(submission.getAnalysisFile());
     val sampleRefName = getSampleRefName(sampleRef);
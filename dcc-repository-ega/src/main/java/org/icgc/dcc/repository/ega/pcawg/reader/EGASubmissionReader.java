@@ -23,6 +23,7 @@ import static com.google.common.collect.Ordering.natural;
 import static java.util.stream.Collectors.toList;
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
+import static org.icgc.dcc.repository.core.util.TransferMetadataRepository.UpdateStrategy.FETCH_RESET;
 import static org.icgc.dcc.repository.ega.pcawg.model.EGASubmission.submission;
 
 import java.io.File;
@@ -72,7 +73,8 @@ public class EGASubmissionReader {
   }
 
   private void updateMetadata() throws GitAPIException, IOException {
-    val repository = new TransferMetadataRepository(repoUrl, repoDir, true);
+    // Reset rather than pull to be safe on problematic repos such as EGA
+    val repository = new TransferMetadataRepository(repoUrl, repoDir, FETCH_RESET);
     repository.update();
   }
 
@@ -151,12 +151,7 @@ public class GDCFileProcessor extends RepositoryFileProcessor {
         .setFileName(getFileName(file))
         .setFileMd5sum(getMd5sum(file))
         .setLastModified(resolveLastModified(file))
-        .setRepoType(gdcRepository.getType().getId())
-        .setRepoOrg(gdcRepository.getSource().getId())
-        .setRepoName(gdcRepository.getName())
-        .setRepoCode(gdcRepository.getCode())
-        .setRepoCountry(gdcRepository.getCountry())
-        .setRepoBaseUrl(gdcRepository.getBaseUrl())
+        .setRepository(gdcRepository)
         .setRepoMetadataPath(gdcRepository.getType().getMetadataPath())
         .setRepoDataPath(gdcRepository.getType().getDataPath());
 
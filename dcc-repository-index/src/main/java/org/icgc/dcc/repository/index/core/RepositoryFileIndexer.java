@@ -20,47 +20,83 @@ package org.icgc.dcc.repository.index.core;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Stopwatch.createStarted;
 import static com.google.common.base.Throwables.propagate;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.elasticsearch.client.Requests.deleteRequest;
+import static org.elasticsearch.client.Requests.indexRequest;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableSet;
 import static org.icgc.dcc.common.core.util.stream.Streams.stream;
+import static org.icgc.dcc.repository.core.RepositoryFileContextBuilder.DEFAULT_ARCHIVE_ASYNC;
+import static org.icgc.dcc.repository.core.RepositoryFileContextBuilder.DEFAULT_ARCHIVE_COMPRESSION_THREADS;
+import static org.icgc.dcc.repository.core.RepositoryFileContextBuilder.DEFAULT_ARCHIVE_QUEUE_SIZE;
 import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.compareIndexDateDescending;
 import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.getCurrentIndexName;
 import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.getSettings;
-import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.getTypeMapping;
+import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.getTypeMappings;
 import static org.icgc.dcc.repository.index.core.RepositoryFileIndexes.isRepoIndexName;
+import static org.icgc.dcc.repository.index.util.ParallelGZIPOutputStream.createGZIPOutputStream;
 import static org.icgc.dcc.repository.index.util.TransportClientFactory.newTransportClient;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchType;
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.icgc.dcc.repository.core.util.PartitionedCollectionScanner;
+import org.icgc.dcc.repository.index.document.DocumentProcessor;
 import org.icgc.dcc.repository.index.document.DonorTextDocumentProcessor;
 import org.icgc.dcc.repository.index.document.FileCentricDocumentProcessor;
 import org.icgc.dcc.repository.index.document.FileTextDocumentProcessor;
 import org.icgc.dcc.repository.index.document.RepositoryDocumentProcessor;
+import org.icgc.dcc.repository.index.model.ArchiveFormat;
 import org.icgc.dcc.repository.index.model.DocumentType;
+import org.icgc.dcc.repository.index.util.AsyncDocumentWriter;
+import org.icgc.dcc.repository.index.util.BulkArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.BulkArchiveReader;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentHashStore;
+import org.icgc.dcc.repository.index.util.DocumentHashStore.StoredHashes;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
 import org.icgc.dcc.repository.index.util.LoggingBulkListener;
 import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.mongodb.MongoClientURI;
 
 import lombok.Cleanup;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.val;
+import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class RepositoryFileIndexer implements Closeable {
 
+  /**
+   * Constants.
+   */
+  private static final TimeValue COPY_SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(10);
+  private static final int COPY_SCROLL_SIZE = 1000;
+  private static final TimeValue RESTORE_BULK_TIMEOUT = TimeValue.timeValueMinutes(30);
+
   /**
    * Configuration.
    */
@@ -73,6 +109,28 @@ public class RepositoryFileIndexer implements Closeable {
   @NonNull
   private final String indexName;
 
+  /**
+   * Options.
+   */
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private boolean archiveAsync = DEFAULT_ARCHIVE_ASYNC;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int archiveQueueSize = DEFAULT_ARCHIVE_QUEUE_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int archiveCompressionThreads = DEFAULT_ARCHIVE_COMPRESSION_THREADS;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private boolean incremental = false;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int batchSize = DocumentProcessor.DEFAULT_BATCH_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int scanThreads = PartitionedCollectionScanner.DEFAULT_THREAD_COUNT;
+
   /**
    * Dependencies.
    */
@@ -88,9 +146,49 @@ public class RepositoryFileIndexer implements Closeable {
     this.client = newTransportClient(esUri);
   }
 
+  @SneakyThrows
   public void indexFiles() {
-    initializeIndex();
-    indexDocuments();
+    if (!incremental) {
+      // The new index invalidates whatever the stored hashes describe
+      clearHashes();
+    }
+
+    val previousHashes = incremental ? readHashes() : new StoredHashes(null, ImmutableMap.of());
+    val liveIndexName = incremental ? getAliasedIndexName() : Optional.<String> empty();
+    val sourceIndexName = resolveSourceIndexName(incremental, previousHashes, liveIndexName, indexName);
+    val changeTracker = createChangeTracker(incremental, previousHashes.getHashes(), sourceIndexName);
+
+    initializeIndex(getSettings(), getTypeMappings());
+    if (sourceIndexName.isPresent()) {
+      // Start from the live documents so that only the delta needs to be written
+      copyIndex(sourceIndexName.get());
+    }
+
+    indexDocuments(changeTracker);
+    aliasIndex();
+    pruneIndexes();
+
+    if (incremental) {
+      // Only record once the new index is live
+      writeHashes(changeTracker.getCurrentHashes());
+    }
+  }
+
+  /**
+   * Rebuilds the index from a {@link ArchiveFormat#BULK} archive, bypassing Mongo and document processing entirely.
+   */
+  @SneakyThrows
+  public void restoreFiles() {
+    val format = ArchiveFormat.forUri(archiveUri);
+    checkState(format == ArchiveFormat.BULK, "Only %s archives can be restored but '%s' is a %s archive",
+        ArchiveFormat.BULK, archiveUri, format);
+
+    val reader = new BulkArchiveReader(getFileSystem(), new Path(archiveUri));
+
+    // The restored index invalidates whatever the stored hashes describe
+    clearHashes();
+    initializeIndex(reader.readSettings(), reader.readTypeMappings());
+    restoreDocuments(reader);
     aliasIndex();
     pruneIndexes();
   }
@@ -100,7 +198,7 @@ public class RepositoryFileIndexer implements Closeable {
     client.close();
   }
 
-  private void initializeIndex() {
+  private void initializeIndex(ObjectNode settings, Map<String, ObjectNode> typeMappings) {
     val indexClient = client.admin().indices();
 
     log.info("Checking index '{}' for existence...", indexName);
@@ -122,7 +220,7 @@ public class RepositoryFileIndexer implements Closeable {
       log.info("Creating index '{}'...", indexName);
       checkState(indexClient
           .prepareCreate(indexName)
-          .setSettings(getSettings().toString())
+          .setSettings(settings.toString())
           .execute()
           .actionGet()
           .isAcknowledged(),
@@ -130,7 +228,7 @@ public class RepositoryFileIndexer implements Closeable {
 
       for (val type : DocumentType.values()) {
         val typeName = type.getId();
-        val source = getTypeMapping(typeName).toString();
+        val source = typeMappings.get(typeName).toString();
 
         log.info("Creating index '{}' mapping for type '{}'...", indexName, typeName);
         checkState(indexClient.preparePutMapping(indexName)
@@ -147,71 +245,275 @@ public class RepositoryFileIndexer implements Closeable {
     }
   }
 
-  private void indexDocuments() {
+  /**
+   * The live index may only be copied when the previous hashes describe exactly that index. Otherwise documents missing
+   * from it could be skipped as unchanged and documents deleted since could be missed.
+   */
+  static Optional<String> resolveSourceIndexName(boolean incremental, StoredHashes previousHashes,
+      Optional<String> liveIndexName, String indexName) {
+    if (!incremental) {
+      return Optional.empty();
+    }
+
+    if (previousHashes.getHashes().isEmpty()) {
+      log.warn("No previous document hashes found. Performing full index instead of incremental index");
+      return Optional.empty();
+    }
+
+    if (!liveIndexName.isPresent()) {
+      log.warn("No live index found. Performing full index instead of incremental index");
+      return Optional.empty();
+    }
+
+    if (!liveIndexName.get().equals(previousHashes.getIndexName())) {
+      log.warn("Previous document hashes are of index '{}' but the live index is '{}'. "
+          + "Performing full index instead of incremental index", previousHashes.getIndexName(), liveIndexName.get());
+      return Optional.empty();
+    }
+
+    if (liveIndexName.get().equals(indexName)) {
+      log.warn("Live index '{}' is the target index. Performing full index instead of incremental index", indexName);
+      return Optional.empty();
+    }
+
+    log.info("Performing incremental index from live index '{}'", liveIndexName.get());
+    return liveIndexName;
+  }
+
+  /**
+   * Only documents that changed since the previous run may be skipped, and only when the live index they are in is
+   * copied first. Otherwise every document has to be written, though hashes are still recorded for the next run.
+   */
+  static DocumentChangeTracker createChangeTracker(boolean incremental, Map<String, String> previousHashes,
+      Optional<String> sourceIndexName) {
+    if (!incremental) {
+      return DocumentChangeTracker.untracked();
+    }
+
+    return sourceIndexName.isPresent() ? new DocumentChangeTracker(previousHashes) : DocumentChangeTracker.recording();
+  }
+
+  @SneakyThrows
+  private void copyIndex(String sourceIndexName) {
     val watch = createStarted();
+    log.info("Copying documents from index '{}' to '{}'...", sourceIndexName, indexName);
 
+    // Synchronous so that all copies have landed before any changed document is indexed on top
     @Cleanup
-    val bulkProcessor = createBulkProcessor();
+    val bulkProcessor = createBulkProcessor(0);
+
+    SearchResponse response = client.prepareSearch(sourceIndexName)
+        .setSearchType(SearchType.SCAN)
+        .setScroll(COPY_SCROLL_KEEP_ALIVE)
+        .setQuery(matchAllQuery())
+        .setSize(COPY_SCROLL_SIZE)
+        .execute()
+        .actionGet();
+
+    int documentCount = 0;
+    while (true) {
+      response = client.prepareSearchScroll(response.getScrollId())
+          .setScroll(COPY_SCROLL_KEEP_ALIVE)
+          .execute()
+          .actionGet();
+
+      val hits = response.getHits().getHits();
+      if (hits.length == 0) {
+        break;
+      }
+
+      for (val hit : hits) {
+        bulkProcessor.add(
+            indexRequest(indexName)
+                .type(hit.getType())
+                .id(hit.getId())
+                .source(hit.sourceRef()));
+
+        documentCount++;
+      }
+    }
+
+    log.info("Finished copying {} documents in {}", formatCount(documentCount), watch);
+  }
+
+  private void indexDocuments(DocumentChangeTracker changeTracker) {
+    val watch = createStarted();
+
     @Cleanup
+    val bulkProcessor = createBulkProcessor();
     val archiveWriter = createArchiveWriter();
 
-    log.info("Indexing repository documents...");
-    val repositoryCount = indexRepositoryDocuments(bulkProcessor, archiveWriter);
-    log.info("Indexing file documents...");
-    val fileCount = indexFileDocuments(bulkProcessor, archiveWriter);
-    log.info("Indexing file text documents...");
-    val fileTextCount = indexFileTextDocuments(bulkProcessor, archiveWriter);
-    log.info("Indexing file donor documents...");
-    val fileDonorCount = indexFileDonorDocuments(bulkProcessor, archiveWriter);
-
-    log.info("Finished indexing {}, repository, {} file, {} file text and {} file donor documents in {}",
-        formatCount(repositoryCount), formatCount(fileCount), formatCount(fileTextCount), formatCount(fileDonorCount),
-        watch);
+    try {
+      log.info("Indexing repository documents...");
+      val repositoryCount = indexRepositoryDocuments(bulkProcessor, archiveWriter, changeTracker);
+      log.info("Indexing file documents...");
+      val fileCount = indexFileDocuments(bulkProcessor, archiveWriter, changeTracker);
+      log.info("Indexing file text documents...");
+      val fileTextCount = indexFileTextDocuments(bulkProcessor, archiveWriter, changeTracker);
+      log.info("Indexing file donor documents...");
+      val fileDonorCount = indexFileDonorDocuments(bulkProcessor, archiveWriter, changeTracker);
+
+      val deletedDocuments = changeTracker.getDeletedDocuments();
+      for (val document : deletedDocuments) {
+        bulkProcessor.add(deleteRequest(indexName).type(document.getType()).id(document.getId()));
+      }
+
+      log.info("Finished indexing {}, repository, {} file, {} file text and {} file donor documents in {}",
+          formatCount(repositoryCount), formatCount(fileCount), formatCount(fileTextCount),
+          formatCount(fileDonorCount), watch);
+      log.info("Wrote {} changed and deleted {} stale documents", formatCount(changeTracker.getChangedCount()),
+          formatCount(deletedDocuments));
+    } catch (Throwable t) {
+      // Don't publish an incomplete archive
+      archiveWriter.abort();
+      throw t;
+    }
+
+    archiveWriter.close();
   }
 
   @SneakyThrows
-  private int indexRepositoryDocuments(BulkProcessor bulkProcessor, TarArchiveDocumentWriter archiveWriter) {
+  private int indexRepositoryDocuments(BulkProcessor bulkProcessor, DocumentWriter archiveWriter,
+      DocumentChangeTracker changeTracker) {
     @Cleanup
-    val processor = new RepositoryDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter);
-    return processor.process();
+    val processor = new RepositoryDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter, changeTracker);
+    return processor.batchSize(batchSize).scanThreads(scanThreads).process();
   }
 
   @SneakyThrows
-  private int indexFileDocuments(BulkProcessor bulkProcessor, TarArchiveDocumentWriter archiveWriter) {
+  private int indexFileDocuments(BulkProcessor bulkProcessor, DocumentWriter archiveWriter,
+      DocumentChangeTracker changeTracker) {
     @Cleanup
-    val processor = new FileCentricDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter);
-    return processor.process();
+    val processor = new FileCentricDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter, changeTracker);
+    return processor.batchSize(batchSize).scanThreads(scanThreads).process();
   }
 
   @SneakyThrows
-  private int indexFileTextDocuments(BulkProcessor bulkProcessor, TarArchiveDocumentWriter archiveWriter) {
+  private int indexFileTextDocuments(BulkProcessor bulkProcessor, DocumentWriter archiveWriter,
+      DocumentChangeTracker changeTracker) {
     @Cleanup
-    val processor = new FileTextDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter);
-    return processor.process();
+    val processor = new FileTextDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter, changeTracker);
+    return processor.batchSize(batchSize).scanThreads(scanThreads).process();
   }
 
   @SneakyThrows
-  private int indexFileDonorDocuments(BulkProcessor bulkProcessor, TarArchiveDocumentWriter archiveWriter) {
+  private int indexFileDonorDocuments(BulkProcessor bulkProcessor, DocumentWriter archiveWriter,
+      DocumentChangeTracker changeTracker) {
     @Cleanup
-    val processor = new DonorTextDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter);
-    return processor.process();
+    val processor = new DonorTextDocumentProcessor(mongoUri, indexName, bulkProcessor, archiveWriter, changeTracker);
+    return processor.batchSize(batchSize).scanThreads(scanThreads).process();
+  }
+
+  @SneakyThrows
+  private void restoreDocuments(BulkArchiveReader reader) {
+    val watch = createStarted();
+    val types = DocumentType.values();
+
+    val bulkListener = new LoggingBulkListener();
+    val bulkProcessor = createBulkProcessor(bulkListener, types.length);
+    val executor = Executors.newFixedThreadPool(types.length);
+    int documentCount = 0;
+    boolean completed;
+    try {
+      // Each type is an independent file so they can be streamed concurrently
+      val results = Lists.<Future<Integer>> newArrayList();
+      for (val type : types) {
+        if (reader.hasDocuments(type)) {
+          results.add(executor.submit(() -> restoreDocuments(reader, type, bulkProcessor)));
+        }
+      }
+
+      for (val result : results) {
+        documentCount += result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+
+      // Concurrent bulk requests may still be in flight and must land before the index is aliased
+      completed = bulkProcessor.awaitClose(RESTORE_BULK_TIMEOUT.millis(), MILLISECONDS);
+    }
+
+    checkState(completed, "Bulk requests to index '%s' did not complete within %s", indexName, RESTORE_BULK_TIMEOUT);
+    checkState(bulkListener.getFailureCount() == 0, "%s bulk requests to index '%s' failed",
+        bulkListener.getFailureCount(), indexName);
+
+    log.info("Finished restoring {} documents in {}", formatCount(documentCount), watch);
+  }
+
+  private int restoreDocuments(BulkArchiveReader reader, DocumentType type, BulkProcessor bulkProcessor)
+      throws IOException {
+    val typeName = type.getId();
+    log.info("Restoring '{}' documents...", typeName);
+    val documentCount = reader.readDocuments(type, (id, source) -> bulkProcessor.add(
+        indexRequest(indexName)
+            .type(typeName)
+            .id(id)
+            .source(source)));
+
+    log.info("Restored {} '{}' documents", formatCount(documentCount), typeName);
+    return documentCount;
   }
 
   private BulkProcessor createBulkProcessor() {
     return BulkProcessor.builder(client, new LoggingBulkListener()).build();
   }
 
+  private BulkProcessor createBulkProcessor(int concurrentRequests) {
+    return createBulkProcessor(new LoggingBulkListener(), concurrentRequests);
+  }
+
+  private BulkProcessor createBulkProcessor(LoggingBulkListener listener, int concurrentRequests) {
+    return BulkProcessor.builder(client, listener).setConcurrentRequests(concurrentRequests).build();
+  }
+
+  @SneakyThrows
+  private DocumentWriter createArchiveWriter() {
+    val fileSystem = getFileSystem();
+    val format = ArchiveFormat.forUri(archiveUri);
+
+    log.info("Creating {} archive writer for '{}'...", format.getId(), archiveUri);
+    DocumentWriter archiveWriter = format == ArchiveFormat.BULK ?
+        new BulkArchiveDocumentWriter(fileSystem, new Path(archiveUri), archiveCompressionThreads) :
+        new TarArchiveDocumentWriter(indexName,
+            createGZIPOutputStream(fileSystem.create(new Path(archiveUri)), archiveCompressionThreads));
+
+    if (!archiveAsync) {
+      return archiveWriter;
+    }
+
+    // Decouple compression and output from the indexing thread
+    log.info("Using asynchronous archive writer with queue size {}", archiveQueueSize);
+    return new AsyncDocumentWriter(archiveWriter, archiveQueueSize);
+  }
+
   @SneakyThrows
-  private TarArchiveDocumentWriter createArchiveWriter() {
+  private StoredHashes readHashes() {
+    @Cleanup
+    val hashStore = new DocumentHashStore(mongoUri);
+    return hashStore.read();
+  }
+
+  @SneakyThrows
+  private void writeHashes(Map<String, String> hashes) {
+    @Cleanup
+    val hashStore = new DocumentHashStore(mongoUri);
+    hashStore.write(indexName, hashes);
+  }
+
+  @SneakyThrows
+  private void clearHashes() {
+    @Cleanup
+    val hashStore = new DocumentHashStore(mongoUri);
+    hashStore.clear();
+  }
+
+  private FileSystem getFileSystem() throws IOException {
     val userName = archiveUri.getUserInfo();
     if (userName != null) {
       System.setProperty("HADOOP_USER_NAME", userName);
     }
 
-    val fileSystem = FileSystem.get(archiveUri, new Configuration());
-    val archive = new GZIPOutputStream(fileSystem.create(new Path(archiveUri)));
-
-    return new TarArchiveDocumentWriter(indexName, archive);
+    return FileSystem.get(archiveUri, new Configuration());
   }
 
   @SneakyThrows
@@ -257,6 +559,19 @@ public class RepositoryFileIndexer implements Closeable {
         "Index '%s' deletion was not acknowledged", Arrays.toString(staleRepoIndexNames));
   }
 
+  private Optional<String> getAliasedIndexName() {
+    val aliases = client.admin()
+        .indices()
+        .prepareGetAliases(indexAlias)
+        .execute()
+        .actionGet()
+        .getAliases();
+
+    return stream(aliases.keys())
+        .map(key -> key.value)
+        .findFirst();
+  }
+
   private Set<String> getIndexNames() {
     val state = client.admin()
         .cluster()
@@ -27,12 +27,15 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
+import java.util.Map;
 import java.util.function.Predicate;
 
+import org.icgc.dcc.repository.index.model.DocumentType;
 import org.joda.time.DateTime;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
 
 import lombok.val;
 
@@ -75,6 +78,15 @@ public class RepositoryFileIndexes {
     return (ObjectNode) typeMapping;
   }
 
+  public static Map<String, ObjectNode> getTypeMappings() throws JsonProcessingException, IOException {
+    val typeMappings = ImmutableMap.<String, ObjectNode> builder();
+    for (val type : DocumentType.values()) {
+      typeMappings.put(type.getId(), getTypeMapping(type.getId()));
+    }
+
+    return typeMappings.build();
+  }
+
   public static String getCurrentIndexName(String indexAlias) {
     val currentDate = INDEX_NAME_DATE_FORMAT.format(LocalDate.now());
     return indexAlias + "-" + currentDate;
@@ -19,30 +19,56 @@ package org.icgc.dcc.repository.index.document;
 
 import static org.elasticsearch.client.Requests.indexRequest;
 import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+import static org.icgc.dcc.common.core.json.JsonNodeBuilders.object;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.icgc.dcc.repository.core.model.RepositoryCollection;
 import org.icgc.dcc.repository.core.util.AbstractJongoComponent;
+import org.icgc.dcc.repository.core.util.PartitionedCollectionScanner;
 import org.icgc.dcc.repository.index.model.Document;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.BsonJsonTranscoder;
+import org.icgc.dcc.repository.index.util.BsonJsonTranscoder.TranscodedDocument;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.mongodb.LazyDBDecoder;
 import com.mongodb.MongoClientURI;
 
+import lombok.Cleanup;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.val;
+import lombok.experimental.Accessors;
 
 public abstract class DocumentProcessor extends AbstractJongoComponent {
 
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_BATCH_SIZE = PartitionedCollectionScanner.DEFAULT_BATCH_SIZE;
+  public static final int DEFAULT_SCAN_THREADS = 1;
+  private static final List<String> ALL_FIELDS = ImmutableList.of();
+
   /**
    * Configuration.
    */
+  @Getter
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int scanThreads = DEFAULT_SCAN_THREADS;
   @NonNull
   private final String indexName;
   @NonNull
@@ -54,21 +80,81 @@ public abstract class DocumentProcessor extends AbstractJongoComponent {
   @NonNull
   private final BulkProcessor bulkProcessor;
   @NonNull
-  private final TarArchiveDocumentWriter archiveWriter;
+  private final DocumentWriter archiveWriter;
+  @NonNull
+  private final DocumentChangeTracker changeTracker;
 
   public DocumentProcessor(MongoClientURI mongoUri, String indexName, DocumentType type, BulkProcessor processor,
-      TarArchiveDocumentWriter archiveWriter) {
+      DocumentWriter archiveWriter, DocumentChangeTracker changeTracker) {
     super(mongoUri);
     this.bulkProcessor = processor;
     this.archiveWriter = archiveWriter;
+    this.changeTracker = changeTracker;
     this.indexName = indexName;
     this.type = type;
   }
 
   abstract public int process();
 
+  /**
+   * Declares the file fields (dotted paths allowed) that {@link #eachFile(Consumer)} reads from Mongo. Override to
+   * restrict the projection. Defaults to all fields.
+   */
+  protected List<String> getFileFields() {
+    return ALL_FIELDS;
+  }
+
+  @SneakyThrows
   protected int eachFile(Consumer<ObjectNode> consumer) {
-    return eachDocument(RepositoryCollection.FILE, consumer);
+    val fileFields = getFileFields();
+    if (scanThreads > 1) {
+      val scanner = new PartitionedCollectionScanner(getCollection(RepositoryCollection.FILE))
+          .threadCount(scanThreads)
+          .batchSize(batchSize)
+          .projection(fileFields.isEmpty() ? null : createProjection(fileFields));
+
+      return scanner.scan(ObjectNode.class, consumer);
+    }
+
+    val find = getCollection(RepositoryCollection.FILE).find().with(cursor -> cursor.batchSize(batchSize));
+
+    if (!fileFields.isEmpty()) {
+      find.projection(createProjection(fileFields));
+    }
+
+    @Cleanup
+    val files = find.as(ObjectNode.class);
+
+    int documentCount = 0;
+    for (val file : files) {
+      consumer.accept(file);
+
+      documentCount++;
+    }
+
+    return documentCount;
+  }
+
+  /**
+   * Streams each file as raw BSON straight into JSON bytes, skipping {@code _id}, without building a tree.
+   */
+  @SneakyThrows
+  protected int eachTranscodedFile(Consumer<TranscodedDocument> consumer) {
+    val transcoder = new BsonJsonTranscoder("id", "_id");
+    val collection = jongo.getDatabase().getCollection(RepositoryCollection.FILE.getId());
+
+    @Cleanup
+    val cursor = collection.find().batchSize(batchSize);
+    cursor.setDecoderFactory(LazyDBDecoder.FACTORY);
+
+    int documentCount = 0;
+    for (val file : cursor) {
+      consumer.accept(transcoder.transcode(file));
+
+      documentCount++;
+    }
+
+    return documentCount;
   }
 
   protected Document createDocument(@NonNull String id) {
@@ -85,15 +171,35 @@ public abstract class DocumentProcessor extends AbstractJongoComponent {
     val source = document.getSource();
     source.remove("_id");
 
-    bulkProcessor.add(
-        indexRequest(indexName)
-            .type(type.getId())
-            .id(document.getId())
-            .source(serializeDocument(source)));
-
+    // Unchanged documents are already present in an incrementally updated index
+    val json = serializeDocument(source);
+    if (changeTracker.isChanged(type, document.getId(), json)) {
+      bulkProcessor.add(
+          indexRequest(indexName)
+              .type(type.getId())
+              .id(document.getId())
+              .source(json));
+    }
+
+    // The archive is always complete
     archiveWriter.write(document);
   }
 
+  @SneakyThrows
+  protected void addDocument(TranscodedDocument document) {
+    val id = document.getId();
+    val source = document.getSource();
+    if (changeTracker.isChanged(type, id, source)) {
+      bulkProcessor.add(
+          indexRequest(indexName)
+              .type(type.getId())
+              .id(id)
+              .source(source));
+    }
+
+    archiveWriter.write(type, id, source);
+  }
+
   protected static String getId(ObjectNode file) {
     return file.get("id").textValue();
   }
@@ -110,6 +216,15 @@ public abstract class DocumentProcessor extends AbstractJongoComponent {
     return donor.get("submitted_donor_id").textValue();
   }
 
+  private static String createProjection(List<String> fieldNames) {
+    val projection = object().with("_id", 0);
+    for (val fieldName : fieldNames) {
+      projection.with(fieldName, 1);
+    }
+
+    return projection.end().toString();
+  }
+
   @SneakyThrows
   private static String serializeDocument(JsonNode document) {
     return DEFAULT.writeValueAsString(document);
@@ -21,23 +21,29 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Consumer;
 
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.icgc.dcc.repository.core.model.RepositoryCollection;
 import org.icgc.dcc.repository.index.model.Document;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
+import com.mongodb.AggregationOptions;
+import com.mongodb.AggregationOptions.OutputMode;
 import com.mongodb.MongoClientURI;
 
-import lombok.SneakyThrows;
-import lombok.Value;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.val;
 import lombok.experimental.Accessors;
 
@@ -54,50 +60,97 @@ public class DonorTextDocumentProcessor extends DocumentProcessor {
       "tcga_participant_barcode",
       "tcga_sample_barcode",
       "tcga_aliquot_barcode");
+  private static final List<String> FILE_FIELDS = ImmutableList.of("donors");
+
+  /**
+   * Configuration.
+   */
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private Aggregation aggregation = Aggregation.SORTED;
 
   public DonorTextDocumentProcessor(MongoClientURI mongoUri, String indexName, BulkProcessor bulkProcessor,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, indexName, DocumentType.DONOR_TEXT, bulkProcessor, archiveWriter);
+      DocumentWriter archiveWriter, DocumentChangeTracker changeTracker) {
+    super(mongoUri, indexName, DocumentType.DONOR_TEXT, bulkProcessor, archiveWriter, changeTracker);
   }
 
   @Override
-  @SneakyThrows
   public int process() {
-    val summary = resolveFileDonorSummary();
-
-    val donorIds = summary.donorIds();
-    for (val donorId : donorIds) {
-      val document = createFileDonor(summary, donorId);
-
-      addDocument(document);
-    }
+    return eachFileDonor(this::addDocument);
+  }
 
-    return donorIds.size();
+  @Override
+  protected List<String> getFileFields() {
+    return FILE_FIELDS;
   }
 
-  private FileDonorSummary resolveFileDonorSummary() {
-    val summary = new FileDonorSummary();
+  int eachFileDonor(Consumer<Document> consumer) {
+    return aggregation == Aggregation.SORTED ? eachSortedFileDonor(consumer) : eachCollectedFileDonor(consumer);
+  }
 
-    // Collect
+  /**
+   * Groups all donors of all files in memory before emitting. Memory grows with the number of donors.
+   */
+  private int eachCollectedFileDonor(Consumer<Document> consumer) {
+    val summaries = Maps.<String, FileDonorSummary> newHashMap();
     eachFile(file -> {
       for (JsonNode donor : getDonors(file)) {
-        summary.donorIds().add(getDonorId(donor));
-        summary.submittedDonorIds().put(getDonorId(donor), getSubmittedDonorId(donor));
-
-        for (String fieldName : FIELD_NAMES) {
-          String fieldValu = resolveFieldValue(donor, fieldName);
-          if (!isNullOrEmpty(fieldValu)) {
-            Multimap<String, String> fieldValues = summary.donorFields().get(fieldName);
-            fieldValues.put(getDonorId(donor), fieldValu);
-          }
-        }
+        summaries.computeIfAbsent(getDonorId(donor), FileDonorSummary::new).add(donor);
       }
     });
 
-    return summary;
+    for (val summary : summaries.values()) {
+      consumer.accept(createFileDonor(summary));
+    }
+
+    return summaries.size();
   }
 
-  private String resolveFieldValue(JsonNode donor, String fieldName) {
+  /**
+   * Streams donors sorted by id from Mongo and emits each donor as soon as its last file has been seen. Memory is
+   * bounded by a single donor.
+   */
+  private int eachSortedFileDonor(Consumer<Document> consumer) {
+    // Secondary sort on _id to visit the files of a donor in insertion order like a collection scan would
+    val donors = getCollection(RepositoryCollection.FILE)
+        .aggregate("{$project: {donors: 1}}")
+        .and("{$unwind: '$donors'}")
+        .and("{$sort: {'donors.donor_id': 1, _id: 1}}")
+        .and("{$project: {_id: 0, donor: '$donors'}}")
+        .options(AggregationOptions.builder()
+            .allowDiskUse(true)
+            .outputMode(OutputMode.CURSOR)
+            .batchSize(batchSize())
+            .build())
+        .as(ObjectNode.class);
+
+    int donorCount = 0;
+    FileDonorSummary summary = null;
+    while (donors.hasNext()) {
+      val donor = donors.next().get("donor");
+      val donorId = getDonorId(donor);
+      if (summary != null && !summary.getDonorId().equals(donorId)) {
+        consumer.accept(createFileDonor(summary));
+        donorCount++;
+        summary = null;
+      }
+
+      if (summary == null) {
+        summary = new FileDonorSummary(donorId);
+      }
+
+      summary.add(donor);
+    }
+
+    if (summary != null) {
+      consumer.accept(createFileDonor(summary));
+      donorCount++;
+    }
+
+    return donorCount;
+  }
+
+  private static String resolveFieldValue(JsonNode donor, String fieldName) {
     if (fieldName.startsWith("tcga")) {
       return donor.path("other_identifiers").path(fieldName).textValue();
     } else {
@@ -105,7 +158,8 @@ public class DonorTextDocumentProcessor extends DocumentProcessor {
     }
   }
 
-  private Document createFileDonor(FileDonorSummary summary, String donorId) {
+  private Document createFileDonor(FileDonorSummary summary) {
+    val donorId = summary.getDonorId();
     val document = createDocument(donorId);
 
     val fileDonor = document.getSource();
@@ -113,29 +167,50 @@ public class DonorTextDocumentProcessor extends DocumentProcessor {
     fileDonor.put("type", "donor");
     fileDonor.put("donor_id", donorId);
 
-    val submittedDonorId = summary.submittedDonorIds().get(donorId);
+    val submittedDonorId = summary.getSubmittedDonorId();
     if (!isNullOrEmpty(submittedDonorId)) {
       fileDonor.put("submitted_donor_id", submittedDonorId);
     }
 
     for (val fieldName : FIELD_NAMES) {
-      fileDonor.putPOJO(fieldName, summary.donorFields().get(fieldName).get(donorId));
+      fileDonor.putPOJO(fieldName, summary.getDonorFields().get(fieldName));
     }
 
     return document;
   }
 
-  @Value
-  @Accessors(fluent = true)
+  public enum Aggregation {
+
+    /**
+     * All donors are collected in memory.
+     */
+    COLLECTED,
+
+    /**
+     * Donors are sorted in Mongo and emitted one at a time.
+     */
+    SORTED;
+
+  }
+
+  @Getter
+  @RequiredArgsConstructor
   private static class FileDonorSummary {
 
-    Set<String> donorIds = Sets.<String> newHashSet();
-    Map<String, String> submittedDonorIds = Maps.newHashMap();
-    Map<String, Multimap<String, String>> donorFields = Maps.newHashMap();
+    @NonNull
+    private final String donorId;
+    private String submittedDonorId;
+    private final Multimap<String, String> donorFields = HashMultimap.create();
+
+    public void add(JsonNode donor) {
+      // Last one wins
+      submittedDonorId = getSubmittedDonorId(donor);
 
-    {
       for (val fieldName : FIELD_NAMES) {
-        donorFields.put(fieldName, HashMultimap.<String, String> create());
+        val fieldValue = resolveFieldValue(donor, fieldName);
+        if (!isNullOrEmpty(fieldValue)) {
+          donorFields.put(fieldName, fieldValue);
+        }
       }
     }
 
@@ -20,19 +20,35 @@ package org.icgc.dcc.repository.index.document;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.icgc.dcc.repository.index.model.Document;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
 
 import com.mongodb.MongoClientURI;
 
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
 public class FileCentricDocumentProcessor extends DocumentProcessor {
 
+  /**
+   * Configuration.
+   */
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private boolean transcode = true;
+
   public FileCentricDocumentProcessor(MongoClientURI mongoUri, String indexName, BulkProcessor processor,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, indexName, DocumentType.FILE_CENTRIC, processor, archiveWriter);
+      DocumentWriter archiveWriter, DocumentChangeTracker changeTracker) {
+    super(mongoUri, indexName, DocumentType.FILE_CENTRIC, processor, archiveWriter, changeTracker);
   }
 
   @Override
   public int process() {
+    if (transcode) {
+      // File documents are indexed as is so there is no need for a tree
+      return eachTranscodedFile(this::addDocument);
+    }
+
     return eachFile(file -> {
       String id = getId(file);
       Document document = createDocument(id, file);
@@ -25,18 +25,32 @@ import java.util.List;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.icgc.dcc.repository.index.model.Document;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
 import com.mongodb.MongoClientURI;
 
 import lombok.val;
 
 public class FileTextDocumentProcessor extends DocumentProcessor {
 
+  /**
+   * Constants.
+   */
+  private static final List<String> FILE_FIELDS = ImmutableList.of(
+      "id",
+      "object_id",
+      "file_copies.file_name",
+      "data_categorization.data_type",
+      "donors.donor_id",
+      "donors.project_code",
+      "data_bundle.data_bundle_id");
+
   public FileTextDocumentProcessor(MongoClientURI mongoUri, String indexName, BulkProcessor processor,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, indexName, DocumentType.FILE_TEXT, processor, archiveWriter);
+      DocumentWriter archiveWriter, DocumentChangeTracker changeTracker) {
+    super(mongoUri, indexName, DocumentType.FILE_TEXT, processor, archiveWriter, changeTracker);
   }
 
   @Override
@@ -44,6 +58,11 @@ public class FileTextDocumentProcessor extends DocumentProcessor {
     return eachFile(this::addDocument);
   }
 
+  @Override
+  protected List<String> getFileFields() {
+    return FILE_FIELDS;
+  }
+
   private void addDocument(ObjectNode file) {
     val id = getId(file);
     val document = createFileText(file, id);
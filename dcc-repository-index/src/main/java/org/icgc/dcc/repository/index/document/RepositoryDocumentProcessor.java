@@ -27,7 +27,8 @@ import org.icgc.dcc.repository.core.model.Repository;
 import org.icgc.dcc.repository.core.model.RepositoryAccess;
 import org.icgc.dcc.repository.index.model.Document;
 import org.icgc.dcc.repository.index.model.DocumentType;
-import org.icgc.dcc.repository.index.util.TarArchiveDocumentWriter;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
 
 import com.mongodb.MongoClientURI;
 
@@ -36,8 +37,8 @@ import lombok.val;
 public class RepositoryDocumentProcessor extends DocumentProcessor {
 
   public RepositoryDocumentProcessor(MongoClientURI mongoUri, String indexName, BulkProcessor processor,
-      TarArchiveDocumentWriter archiveWriter) {
-    super(mongoUri, indexName, DocumentType.REPOSITORY, processor, archiveWriter);
+      DocumentWriter archiveWriter, DocumentChangeTracker changeTracker) {
+    super(mongoUri, indexName, DocumentType.REPOSITORY, processor, archiveWriter, changeTracker);
   }
 
   @Override
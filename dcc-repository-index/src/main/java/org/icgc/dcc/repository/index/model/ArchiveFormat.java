@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.model;
+
+import static lombok.AccessLevel.PRIVATE;
+
+import java.net.URI;
+
+import org.icgc.dcc.common.core.model.Identifiable;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Supported index archive formats.
+ */
+@Getter
+@RequiredArgsConstructor(access = PRIVATE)
+public enum ArchiveFormat implements Identifiable {
+
+  /**
+   * Single {@code .tar.gz} file with one entry per document that can be loaded with the knapsack plugin.
+   */
+  KNAPSACK("knapsack"),
+
+  /**
+   * Directory with one gzipped {@code _bulk} API NDJSON file per document type, plus settings and mappings.
+   */
+  BULK("bulk");
+
+  @NonNull
+  private final String id;
+
+  /**
+   * Archive URIs that name a {@code .tar.gz} file are knapsack archives, all others are bulk archive directories.
+   */
+  public static ArchiveFormat forUri(@NonNull URI archiveUri) {
+    return archiveUri.getPath().endsWith(".tar.gz") ? KNAPSACK : BULK;
+  }
+
+}
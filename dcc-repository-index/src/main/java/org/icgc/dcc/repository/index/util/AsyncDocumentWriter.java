@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Stopwatch.createStarted;
+import static com.google.common.base.Stopwatch.createUnstarted;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.icgc.dcc.repository.index.model.Document;
+import org.icgc.dcc.repository.index.model.DocumentType;
+
+import com.google.common.base.Stopwatch;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link DocumentWriter} decorator that moves writing off of the calling thread.
+ * <p>
+ * Documents are handed to a dedicated writer thread through a bounded queue so that (potentially slow) archive
+ * compression and output can overlap with indexing. When the queue is full, {@link #write(Document)} blocks until the
+ * writer catches up. Any failure of the delegate is rethrown on the next {@link #write(Document)} or on
+ * {@link #close()}.
+ */
+@Slf4j
+public class AsyncDocumentWriter implements DocumentWriter {
+
+  /**
+   * Constants.
+   */
+  private static final Write END_OF_QUEUE = writer -> {};
+
+  /**
+   * Dependencies.
+   */
+  @NonNull
+  private final DocumentWriter delegate;
+
+  /**
+   * State.
+   */
+  private final BlockingQueue<Write> queue;
+  private final Thread thread;
+  private final Stopwatch busyWatch = createUnstarted();
+  private final Stopwatch totalWatch = createStarted();
+  private volatile Throwable error;
+  private volatile boolean aborted;
+  private volatile int documentCount;
+  private volatile int maxQueueSize;
+  private boolean closed;
+
+  public AsyncDocumentWriter(@NonNull DocumentWriter delegate, int queueSize) {
+    this.delegate = delegate;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.thread = new Thread(this::run, "archive-writer");
+
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void write(@NonNull Document document) throws IOException {
+    checkError();
+    checkState(!closed, "Writer is closed");
+
+    put(writer -> writer.write(document));
+  }
+
+  @Override
+  public void write(@NonNull DocumentType type, @NonNull String id, @NonNull byte[] source) throws IOException {
+    checkError();
+    checkState(!closed, "Writer is closed");
+
+    put(writer -> writer.write(type, id, source));
+  }
+
+  @Override
+  @SneakyThrows
+  public void close() {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    if (thread.isAlive()) {
+      log.info("Waiting for archive writer to drain {} queued documents...", formatCount(queue.size()));
+      put(END_OF_QUEUE);
+    }
+
+    thread.join();
+    logMetrics();
+
+    checkError();
+  }
+
+  @Override
+  public void abort() {
+    // Queued documents are no longer needed and the delegate discards its output
+    aborted = true;
+    queue.clear();
+
+    try {
+      close();
+    } catch (Throwable t) {
+      log.warn("Error aborting archive writer: ", t);
+    }
+  }
+
+  private void run() {
+    try {
+      while (true) {
+        val write = queue.take();
+        if (write == END_OF_QUEUE) {
+          break;
+        }
+
+        busyWatch.start();
+        write.apply(delegate);
+        busyWatch.stop();
+
+        documentCount++;
+        maxQueueSize = Math.max(maxQueueSize, queue.size());
+      }
+    } catch (Throwable t) {
+      log.error("Error writing archive document: ", t);
+      error = t;
+
+      // Unblock any producer that is waiting on a full queue
+      queue.clear();
+    } finally {
+      try {
+        if (aborted || error != null) {
+          delegate.abort();
+        } else {
+          delegate.close();
+        }
+      } catch (Throwable t) {
+        log.error("Error closing archive: ", t);
+        if (error == null) {
+          error = t;
+        }
+      }
+    }
+  }
+
+  private void put(Write write) throws InterruptedException, IOException {
+    // Poll rather than block indefinitely so that a failed writer thread cannot deadlock the producer
+    while (!queue.offer(write, 1, SECONDS)) {
+      checkError();
+      checkState(thread.isAlive(), "Archive writer thread terminated unexpectedly");
+    }
+  }
+
+  private void checkError() throws IOException {
+    if (error != null) {
+      throw new IOException("Asynchronous archive write failed", error);
+    }
+  }
+
+  private void logMetrics() {
+    val seconds = Math.max(totalWatch.elapsed(SECONDS), 1);
+    log.info("Archive writer wrote {} documents in {} ({} docs/s), busy for {}, max queue size {}",
+        formatCount(documentCount), totalWatch, formatCount((int) (documentCount / seconds)), busyWatch,
+        formatCount(maxQueueSize));
+  }
+
+  /**
+   * A pending write against the delegate.
+   */
+  @FunctionalInterface
+  private interface Write {
+
+    void apply(DocumentWriter writer) throws IOException;
+
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_STRING;
+import static com.google.common.base.Preconditions.checkState;
+import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Set;
+
+import org.bson.BSONObject;
+import org.bson.LazyBSONObject;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.google.common.collect.ImmutableSet;
+
+import de.undercouch.bson4jackson.BsonFactory;
+import de.undercouch.bson4jackson.BsonParser;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+
+/**
+ * Streams raw BSON documents straight into JSON bytes without materializing an intermediate tree.
+ * <p>
+ * Top-level fields in {@code excludedFieldNames} are skipped and the top-level string value of {@code idFieldName} is
+ * captured along the way. Values that have no JSON equivalent (e.g. dates) are serialized by the default mapper, the
+ * same as when going through an {@code ObjectNode}. Not thread safe.
+ */
+public class BsonJsonTranscoder {
+
+  /**
+   * Constants.
+   */
+  private static final BsonFactory BSON_FACTORY = new BsonFactory()
+      .enable(BsonParser.Feature.HONOR_DOCUMENT_LENGTH);
+  // Has the default mapper as its codec for embedded objects
+  private static final JsonFactory JSON_FACTORY = DEFAULT.getFactory();
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final String idFieldName;
+  @NonNull
+  private final Set<String> excludedFieldNames;
+
+  /**
+   * State.
+   */
+  private final BufferOutputStream bson = new BufferOutputStream();
+  private final ByteArrayBuilder json = new ByteArrayBuilder();
+
+  public BsonJsonTranscoder(@NonNull String idFieldName, @NonNull String... excludedFieldNames) {
+    this.idFieldName = idFieldName;
+    this.excludedFieldNames = ImmutableSet.copyOf(excludedFieldNames);
+  }
+
+  public TranscodedDocument transcode(@NonNull BSONObject document) throws IOException {
+    checkState(document instanceof LazyBSONObject, "Expected raw BSON but got %s", document.getClass());
+    bson.reset();
+    ((LazyBSONObject) document).pipe(bson);
+
+    return transcode(bson.getBuffer(), bson.size());
+  }
+
+  public TranscodedDocument transcode(@NonNull byte[] buffer, int length) throws IOException {
+    json.reset();
+    String id = null;
+
+    try (
+        JsonParser parser = BSON_FACTORY.createParser(new ByteArrayInputStream(buffer, 0, length));
+        JsonGenerator generator = JSON_FACTORY.createGenerator(json)) {
+      checkState(parser.nextToken() == START_OBJECT, "Expected start of document");
+      generator.writeStartObject();
+
+      while (parser.nextToken() == FIELD_NAME) {
+        val fieldName = parser.getCurrentName();
+        val token = parser.nextToken();
+        if (excludedFieldNames.contains(fieldName)) {
+          parser.skipChildren();
+          continue;
+        }
+
+        if (token == VALUE_STRING && fieldName.equals(idFieldName)) {
+          id = parser.getText();
+        }
+
+        generator.writeFieldName(fieldName);
+        generator.copyCurrentStructure(parser);
+      }
+
+      generator.writeEndObject();
+    }
+
+    checkState(id != null, "Missing '%s' field in document", idFieldName);
+    return new TranscodedDocument(id, json.toByteArray());
+  }
+
+  @Value
+  public static class TranscodedDocument {
+
+    String id;
+    byte[] source;
+
+  }
+
+  /**
+   * Reusable buffer that exposes its backing array to avoid a copy per document.
+   */
+  private static class BufferOutputStream extends ByteArrayOutputStream {
+
+    public byte[] getBuffer() {
+      return buf;
+    }
+
+  }
+
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET;
+import static com.google.common.base.Preconditions.checkState;
+import static org.icgc.dcc.common.core.json.JsonNodeBuilders.object;
+import static org.icgc.dcc.repository.index.util.ParallelGZIPOutputStream.createGZIPOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.icgc.dcc.repository.index.core.RepositoryFileIndexes;
+import org.icgc.dcc.repository.index.model.Document;
+import org.icgc.dcc.repository.index.model.DocumentType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Maps;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Archive writer that produces files that can be fed directly to the Elasticsearch {@code _bulk} API.
+ * <p>
+ * Layout:
+ * 
+ * <pre>
+ * [archive]/_settings.json
+ * [archive]/[type].mapping.json
+ * [archive]/[type].ndjson.gz
+ * [archive]/_SUCCESS
+ * </pre>
+ * 
+ * Each {@code .ndjson.gz} file holds action / source line pairs without an {@code _index} so that they can be loaded
+ * into any index.
+ * <p>
+ * The archive is written to a sibling {@code .tmp} directory that only replaces {@code [archive]} on {@link #close()},
+ * together with the {@code _SUCCESS} marker. Files of an earlier archive therefore never survive and an interrupted or
+ * {@link #abort() aborted} write never leaves a partial archive behind.
+ * 
+ * @see BulkArchiveReader
+ */
+@Slf4j
+public class BulkArchiveDocumentWriter implements DocumentWriter {
+
+  /**
+   * Constants.
+   */
+  public static final String SETTINGS_FILE_NAME = "_settings.json";
+  public static final String MAPPING_FILE_SUFFIX = ".mapping.json";
+  public static final String DOCUMENTS_FILE_SUFFIX = ".ndjson.gz";
+  public static final String COMPLETE_FILE_NAME = "_SUCCESS";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final ObjectMapper MAPPER = new ObjectMapper().configure(AUTO_CLOSE_TARGET, false);
+  private static final byte[] NEW_LINE = { '\n' };
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final FileSystem fileSystem;
+  @NonNull
+  private final Path archivePath;
+  @NonNull
+  private final Path tempPath;
+  private final int compressionThreads;
+
+  /**
+   * State.
+   */
+  private final Map<DocumentType, OutputStream> outputStreams = Maps.newEnumMap(DocumentType.class);
+  private boolean failed;
+  private boolean closed;
+
+  public BulkArchiveDocumentWriter(@NonNull FileSystem fileSystem, @NonNull Path archivePath, int compressionThreads)
+      throws IOException {
+    this.fileSystem = fileSystem;
+    this.archivePath = archivePath;
+    this.tempPath = new Path(archivePath.getParent(), archivePath.getName() + TEMP_SUFFIX);
+    this.compressionThreads = compressionThreads;
+
+    // Left over from an interrupted run
+    fileSystem.delete(tempPath, true);
+    fileSystem.mkdirs(tempPath);
+
+    addMetaFiles();
+  }
+
+  @Override
+  public void write(@NonNull Document document) throws IOException {
+    try {
+      val outputStream = getOutputStream(document.getType());
+
+      writeLine(outputStream, createAction(document.getType(), document.getId()));
+      writeLine(outputStream, document.getSource());
+    } catch (IOException e) {
+      failed = true;
+      throw e;
+    }
+  }
+
+  @Override
+  public void write(@NonNull DocumentType type, @NonNull String id, @NonNull byte[] source) throws IOException {
+    try {
+      val outputStream = getOutputStream(type);
+
+      writeLine(outputStream, createAction(type, id));
+      outputStream.write(source);
+      outputStream.write(NEW_LINE);
+    } catch (IOException e) {
+      failed = true;
+      throw e;
+    }
+  }
+
+  /**
+   * Publishes the archive unless a write failed, in which case it is discarded.
+   */
+  @Override
+  @SneakyThrows
+  public void close() {
+    if (closed) {
+      return;
+    }
+
+    if (failed) {
+      abort();
+      return;
+    }
+
+    log.info("Closing {} bulk archive files in '{}'...", outputStreams.size(), tempPath);
+    closed = true;
+    try {
+      for (val outputStream : outputStreams.values()) {
+        outputStream.close();
+      }
+
+      fileSystem.create(new Path(tempPath, COMPLETE_FILE_NAME)).close();
+    } catch (IOException e) {
+      fileSystem.delete(tempPath, true);
+      throw e;
+    }
+
+    log.info("Replacing bulk archive '{}'...", archivePath);
+    fileSystem.delete(archivePath, true);
+    checkState(fileSystem.rename(tempPath, archivePath), "Could not rename '%s' to '%s'", tempPath, archivePath);
+
+    log.info("Finished!");
+  }
+
+  @Override
+  @SneakyThrows
+  public void abort() {
+    if (closed) {
+      return;
+    }
+
+    log.warn("Discarding bulk archive files in '{}'...", tempPath);
+    closed = true;
+    for (val outputStream : outputStreams.values()) {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        log.warn("Error closing discarded bulk archive file: ", e);
+      }
+    }
+
+    fileSystem.delete(tempPath, true);
+  }
+
+  private void addMetaFiles() throws IOException {
+    writeFile(SETTINGS_FILE_NAME, RepositoryFileIndexes.getSettings());
+    for (val type : DocumentType.values()) {
+      writeFile(getMappingFileName(type), RepositoryFileIndexes.getTypeMapping(type.getId()));
+    }
+  }
+
+  private void writeFile(String fileName, JsonNode value) throws IOException {
+    try (OutputStream outputStream = fileSystem.create(new Path(tempPath, fileName))) {
+      MAPPER.writeValue(outputStream, value);
+    }
+  }
+
+  private OutputStream getOutputStream(DocumentType type) throws IOException {
+    OutputStream outputStream = outputStreams.get(type);
+    if (outputStream == null) {
+      val path = new Path(tempPath, getDocumentsFileName(type));
+      log.info("Creating bulk archive file '{}'...", path);
+
+      outputStream = createGZIPOutputStream(fileSystem.create(path), compressionThreads);
+      outputStreams.put(type, outputStream);
+    }
+
+    return outputStream;
+  }
+
+  private static JsonNode createAction(DocumentType type, String id) {
+    return object().with("index", object()
+        .with("_type", type.getId())
+        .with("_id", id))
+        .end();
+  }
+
+  private static void writeLine(OutputStream outputStream, JsonNode value) throws IOException {
+    // Default pretty printing is off so each value is guaranteed to be on a single line
+    MAPPER.writeValue(outputStream, value);
+    outputStream.write(NEW_LINE);
+  }
+
+  public static String getMappingFileName(DocumentType type) {
+    return type.getId() + MAPPING_FILE_SUFFIX;
+  }
+
+  public static String getDocumentsFileName(DocumentType type) {
+    return type.getId() + DOCUMENTS_FILE_SUFFIX;
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.icgc.dcc.repository.index.util.BulkArchiveDocumentWriter.COMPLETE_FILE_NAME;
+import static org.icgc.dcc.repository.index.util.BulkArchiveDocumentWriter.SETTINGS_FILE_NAME;
+import static org.icgc.dcc.repository.index.util.BulkArchiveDocumentWriter.getDocumentsFileName;
+import static org.icgc.dcc.repository.index.util.BulkArchiveDocumentWriter.getMappingFileName;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.icgc.dcc.repository.index.model.DocumentType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Reader for archives produced by {@link BulkArchiveDocumentWriter}. Only complete archives can be read.
+ */
+public class BulkArchiveReader {
+
+  /**
+   * Constants.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final FileSystem fileSystem;
+  @NonNull
+  private final Path archivePath;
+
+  public BulkArchiveReader(@NonNull FileSystem fileSystem, @NonNull Path archivePath) throws IOException {
+    checkState(fileSystem.exists(new Path(archivePath, COMPLETE_FILE_NAME)),
+        "'%s' is not a complete bulk archive: missing '%s'", archivePath, COMPLETE_FILE_NAME);
+
+    this.fileSystem = fileSystem;
+    this.archivePath = archivePath;
+  }
+
+  public ObjectNode readSettings() throws IOException {
+    return readFile(SETTINGS_FILE_NAME);
+  }
+
+  public Map<String, ObjectNode> readTypeMappings() throws IOException {
+    val typeMappings = ImmutableMap.<String, ObjectNode> builder();
+    for (val type : DocumentType.values()) {
+      typeMappings.put(type.getId(), readFile(getMappingFileName(type)));
+    }
+
+    return typeMappings.build();
+  }
+
+  public boolean hasDocuments(@NonNull DocumentType type) throws IOException {
+    return fileSystem.exists(new Path(archivePath, getDocumentsFileName(type)));
+  }
+
+  /**
+   * Streams the documents of the supplied {@code type} to {@code handler} as {@code (id, source)} pairs. Sources are
+   * passed through as raw JSON so they never need to be parsed.
+   * 
+   * @return the number of documents read
+   */
+  public int readDocuments(@NonNull DocumentType type, @NonNull BiConsumer<String, String> handler)
+      throws IOException {
+    val path = new Path(archivePath, getDocumentsFileName(type));
+
+    int documentCount = 0;
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(new GZIPInputStream(fileSystem.open(path)), UTF_8))) {
+      String actionLine;
+      while ((actionLine = reader.readLine()) != null) {
+        val sourceLine = reader.readLine();
+        checkState(sourceLine != null, "Missing source line for action '%s' in '%s'", actionLine, path);
+
+        val action = MAPPER.readTree(actionLine).path("index");
+        checkState(type.getId().equals(action.path("_type").textValue()), "Unexpected type in action '%s' of '%s'",
+            actionLine, path);
+
+        handler.accept(action.path("_id").textValue(), sourceLine);
+        documentCount++;
+      }
+    }
+
+    return documentCount;
+  }
+
+  private ObjectNode readFile(String fileName) throws IOException {
+    try (InputStream inputStream = fileSystem.open(new Path(archivePath, fileName))) {
+      return (ObjectNode) MAPPER.readTree(inputStream);
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.icgc.dcc.repository.index.model.DocumentType;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+
+/**
+ * Tracks content hashes of indexed documents to determine which documents changed since the previous run.
+ * <p>
+ * Documents are keyed by {@code [type]/[id]}. A tracker created with {@link #untracked()} considers every document
+ * changed and records nothing, which corresponds to a full rebuild. One created with {@link #recording()} also
+ * considers every document changed but records hashes so that the next run can be incremental.
+ */
+public class DocumentChangeTracker {
+
+  /**
+   * Constants.
+   */
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+  private static final char KEY_SEPARATOR = '/';
+
+  /**
+   * Configuration.
+   */
+  private final boolean enabled;
+
+  /**
+   * State.
+   */
+  @NonNull
+  private final Map<String, String> previousHashes;
+  @Getter
+  private final Map<String, String> currentHashes = Maps.newHashMap();
+  @Getter
+  private int changedCount;
+
+  public static DocumentChangeTracker untracked() {
+    return new DocumentChangeTracker(false, ImmutableMap.of());
+  }
+
+  public static DocumentChangeTracker recording() {
+    return new DocumentChangeTracker(true, ImmutableMap.of());
+  }
+
+  public DocumentChangeTracker(@NonNull Map<String, String> previousHashes) {
+    this(true, previousHashes);
+  }
+
+  private DocumentChangeTracker(boolean enabled, Map<String, String> previousHashes) {
+    this.enabled = enabled;
+    this.previousHashes = previousHashes;
+  }
+
+  /**
+   * Records the current {@code source} of a document and returns whether it differs from the previous run.
+   */
+  public boolean isChanged(@NonNull DocumentType type, @NonNull String id, @NonNull String source) {
+    // Equivalent to hashing the UTF-8 bytes so both overloads agree
+    return isChanged(type, id, () -> HASH_FUNCTION.hashString(source, UTF_8));
+  }
+
+  /**
+   * Records the current serialized UTF-8 {@code source} of a document and returns whether it differs from the previous
+   * run.
+   */
+  public boolean isChanged(@NonNull DocumentType type, @NonNull String id, @NonNull byte[] source) {
+    return isChanged(type, id, () -> HASH_FUNCTION.hashBytes(source));
+  }
+
+  private boolean isChanged(DocumentType type, String id, Supplier<HashCode> hasher) {
+    if (!enabled) {
+      changedCount++;
+      return true;
+    }
+
+    val key = formatKey(type, id);
+    val hash = hasher.get().toString();
+    currentHashes.put(key, hash);
+
+    val changed = !hash.equals(previousHashes.get(key));
+    if (changed) {
+      changedCount++;
+    }
+
+    return changed;
+  }
+
+  /**
+   * @return the documents that were present in the previous run but have not been seen in this one
+   */
+  public Set<DocumentKey> getDeletedDocuments() {
+    val deleted = Sets.<DocumentKey> newHashSet();
+    for (val key : previousHashes.keySet()) {
+      if (!currentHashes.containsKey(key)) {
+        deleted.add(parseKey(key));
+      }
+    }
+
+    return deleted;
+  }
+
+  private static String formatKey(DocumentType type, String id) {
+    return type.getId() + KEY_SEPARATOR + id;
+  }
+
+  private static DocumentKey parseKey(String key) {
+    // Type names never contain the separator but ids might
+    val index = key.indexOf(KEY_SEPARATOR);
+    return new DocumentKey(key.substring(0, index), key.substring(index + 1));
+  }
+
+  @Value
+  public static class DocumentKey {
+
+    String type;
+    String id;
+
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static org.icgc.dcc.common.core.json.JsonNodeBuilders.object;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.icgc.dcc.repository.core.util.AbstractJongoComponent;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.mongodb.MongoClientURI;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persists the document hashes of the live index so the next run can index incrementally.
+ * <p>
+ * The hashes are stored together with the name of the index they describe, since they are only meaningful for as long
+ * as that index is the live one.
+ * 
+ * @see DocumentChangeTracker
+ */
+@Slf4j
+public class DocumentHashStore extends AbstractJongoComponent {
+
+  /**
+   * Constants.
+   */
+  public static final String COLLECTION_NAME = "IndexDocumentHash";
+  private static final String STAGING_COLLECTION_NAME = COLLECTION_NAME + "Staging";
+  private static final int BATCH_SIZE = 1000;
+
+  /**
+   * Document keys always contain a separator, so this id cannot collide with a hash.
+   */
+  private static final String INDEX_NAME_ID = "indexName";
+
+  public DocumentHashStore(MongoClientURI mongoUri) {
+    super(mongoUri);
+  }
+
+  public StoredHashes read() {
+    val indexName = new AtomicReference<String>();
+    val hashes = Maps.<String, String> newHashMap();
+    eachDocument(COLLECTION_NAME, document -> {
+      val id = document.get("_id").textValue();
+      if (id.equals(INDEX_NAME_ID)) {
+        indexName.set(document.get("indexName").textValue());
+      } else {
+        hashes.put(id, document.get("hash").textValue());
+      }
+    });
+
+    log.info("Read {} document hashes of index '{}'", formatCount(hashes.size()), indexName.get());
+    return new StoredHashes(indexName.get(), hashes);
+  }
+
+  /**
+   * Replaces the stored hashes with those of {@code indexName}. They are written to a staging collection which is then
+   * renamed over the live one, so a failed write leaves the previous hashes in place.
+   */
+  public void write(@NonNull String indexName, @NonNull Map<String, String> hashes) {
+    val staging = getCollection(STAGING_COLLECTION_NAME);
+    staging.drop();
+
+    log.info("Writing {} document hashes of index '{}'...", formatCount(hashes.size()), indexName);
+    staging.insert(object().with("_id", INDEX_NAME_ID).with("indexName", indexName).end());
+
+    List<Object> batch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+    for (val entry : hashes.entrySet()) {
+      batch.add(object().with("_id", entry.getKey()).with("hash", entry.getValue()).end());
+
+      if (batch.size() == BATCH_SIZE) {
+        staging.insert(batch.toArray());
+        batch.clear();
+      }
+    }
+
+    if (!batch.isEmpty()) {
+      staging.insert(batch.toArray());
+    }
+
+    staging.getDBCollection().rename(COLLECTION_NAME, true);
+    log.info("Finished writing document hashes");
+  }
+
+  /**
+   * Removes the stored hashes, e.g. when a full rebuild replaces the index they describe.
+   */
+  public void clear() {
+    log.info("Clearing document hashes");
+    getCollection(COLLECTION_NAME).drop();
+  }
+
+  @Value
+  public static class StoredHashes {
+
+    /**
+     * The index the hashes describe or {@code null} if none were stored.
+     */
+    String indexName;
+    Map<String, String> hashes;
+
+  }
+
+}
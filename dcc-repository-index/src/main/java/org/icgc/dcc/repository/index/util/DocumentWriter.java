@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import org.icgc.dcc.repository.index.model.Document;
+import org.icgc.dcc.repository.index.model.DocumentType;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Abstraction for sinks of indexed {@link Document}s, such as index archives.
+ */
+public interface DocumentWriter extends Closeable {
+
+  void write(Document document) throws IOException;
+
+  /**
+   * Writes a document whose {@code source} is already serialized JSON. Implementations should override this to avoid
+   * parsing the source back into a tree.
+   */
+  default void write(DocumentType type, String id, byte[] source) throws IOException {
+    write(new Document(type, id, DEFAULT.readValue(source, ObjectNode.class)));
+  }
+
+  @Override
+  void close();
+
+  /**
+   * Closes the writer after a failure. Writers that only publish their output on {@link #close()} discard it instead.
+   */
+  default void abort() {
+    close();
+  }
+
+}
@@ -19,6 +19,8 @@ package org.icgc.dcc.repository.index.util;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.elasticsearch.action.bulk.BulkProcessor.Listener;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
@@ -29,6 +31,19 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class LoggingBulkListener implements Listener {
 
+  /**
+   * State.
+   */
+  private final AtomicInteger failureCount = new AtomicInteger();
+
+  /**
+   * Returns the number of failed bulk requests. Failures of concurrent requests are raised on a transport thread, so
+   * this is the only way for the caller to observe them.
+   */
+  public int getFailureCount() {
+    return failureCount.get();
+  }
+
   @Override
   public void beforeBulk(long executionId, BulkRequest request) {
     log.info("[{}] executing [{}]/[{}]", executionId, request.numberOfActions(),
@@ -40,12 +55,17 @@ public class LoggingBulkListener implements Listener {
     log.info("'{}' executed  [{}]/[{}], took {}", executionId, request.numberOfActions(), new ByteSizeValue(
         request.estimatedSizeInBytes()), response.getTook());
 
+    if (response.hasFailures()) {
+      failureCount.incrementAndGet();
+    }
+
     checkState(!response.hasFailures(), "'%s' failed to execute bulk request: %s", executionId,
         response.buildFailureMessage());
   }
 
   @Override
   public void afterBulk(long executionId, BulkRequest request, Throwable e) {
+    failureCount.incrementAndGet();
     log.info("'{}' failed to execute bulk request", e, executionId);
   }
 
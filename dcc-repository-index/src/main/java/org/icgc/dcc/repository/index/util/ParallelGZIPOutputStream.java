@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * Block based, multi-threaded gzip output stream in the spirit of {@code pigz}.
+ * <p>
+ * Input is split into fixed size blocks that are deflated concurrently and written in order. Each block is ended with
+ * a sync flush so the blocks concatenate into a single deflate stream, and the CRC is computed in order as blocks are
+ * submitted. The output is therefore a single gzip member (RFC 1952) which, unlike concatenated members, is read in
+ * full by readers that stop after the first member such as commons-compress {@code GzipCompressorInputStream}.
+ */
+public class ParallelGZIPOutputStream extends FilterOutputStream {
+
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+  public static final int DEFAULT_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+  private static final byte[] HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+  private static final byte[] FINAL_BLOCK = { 0x03, 0x00 }; // Empty final block with fixed Huffman codes
+  private static final int DEFLATE_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Configuration.
+   */
+  private final int blockSize;
+  private final int maxPending;
+
+  /**
+   * State.
+   */
+  private final ExecutorService executor;
+  private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+  private final CRC32 crc = new CRC32();
+  private long totalLength;
+  private byte[] block;
+  private int blockLength;
+  private boolean closed;
+
+  public ParallelGZIPOutputStream(@NonNull OutputStream out) throws IOException {
+    this(out, DEFAULT_THREAD_COUNT);
+  }
+
+  public ParallelGZIPOutputStream(@NonNull OutputStream out, int threadCount) throws IOException {
+    this(out, threadCount, DEFAULT_BLOCK_SIZE);
+  }
+
+  public ParallelGZIPOutputStream(@NonNull OutputStream out, int threadCount, int blockSize) throws IOException {
+    super(out);
+    checkArgument(threadCount > 0, "Thread count must be positive: %s", threadCount);
+    checkArgument(blockSize > 0, "Block size must be positive: %s", blockSize);
+
+    this.blockSize = blockSize;
+    this.maxPending = threadCount * 2; // Keep workers busy while the head block is being written
+    this.executor = Executors.newFixedThreadPool(threadCount,
+        new ThreadFactoryBuilder().setNameFormat("gzip-%d").setDaemon(true).build());
+    this.block = new byte[blockSize];
+
+    out.write(HEADER);
+  }
+
+  /**
+   * Creates a gzip stream, using parallel compression only when more than one thread is requested.
+   */
+  public static OutputStream createGZIPOutputStream(@NonNull OutputStream out, int threadCount) throws IOException {
+    return threadCount <= 1 ? new GZIPOutputStream(out) : new ParallelGZIPOutputStream(out, threadCount);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    checkState(!closed, "Stream is closed");
+    block[blockLength++] = (byte) b;
+    if (blockLength == blockSize) {
+      submitBlock();
+    }
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    checkState(!closed, "Stream is closed");
+    while (len > 0) {
+      val n = Math.min(len, blockSize - blockLength);
+      System.arraycopy(b, off, block, blockLength, n);
+      blockLength += n;
+      off += n;
+      len -= n;
+
+      if (blockLength == blockSize) {
+        submitBlock();
+      }
+    }
+  }
+
+  /**
+   * Writes blocks that have already been compressed. Buffered input is not forced out since callers such as Jackson
+   * flush after every value, which would otherwise degrade into one tiny member per write.
+   */
+  @Override
+  public void flush() throws IOException {
+    checkState(!closed, "Stream is closed");
+    while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+      writeHead();
+    }
+
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+
+    try {
+      submitBlock();
+      while (!pending.isEmpty()) {
+        writeHead();
+      }
+
+      out.write(FINAL_BLOCK);
+      writeTrailer();
+      out.flush();
+    } finally {
+      closed = true;
+      executor.shutdownNow();
+      out.close();
+    }
+  }
+
+  private void submitBlock() throws IOException {
+    if (blockLength == 0) {
+      return;
+    }
+
+    val data = block;
+    val length = blockLength;
+    crc.update(data, 0, length);
+    totalLength += length;
+    pending.add(executor.submit(() -> compress(data, length)));
+
+    // Hand off the buffer to the worker and start a new one
+    block = new byte[blockSize];
+    blockLength = 0;
+
+    // Bound memory by writing completed blocks in order
+    while (pending.size() >= maxPending) {
+      writeHead();
+    }
+  }
+
+  private void writeHead() throws IOException {
+    try {
+      out.write(pending.removeFirst().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while compressing", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Error compressing block", e.getCause());
+    }
+  }
+
+  private void writeTrailer() throws IOException {
+    // Little endian CRC and length modulo 2^32
+    val trailer = ByteBuffer.allocate(2 * Integer.BYTES).order(LITTLE_ENDIAN);
+    trailer.putInt((int) crc.getValue());
+    trailer.putInt((int) totalLength);
+
+    out.write(trailer.array());
+  }
+
+  /**
+   * Deflates a block without a final block marker. The sync flush ends it on a byte boundary so that it can be followed
+   * by the next block.
+   */
+  private static byte[] compress(byte[] data, int length) {
+    val deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      deflater.setInput(data, 0, length);
+
+      val buffer = new ByteArrayOutputStream(length / 2);
+      val chunk = new byte[DEFLATE_BUFFER_SIZE];
+      int n;
+      do {
+        n = deflater.deflate(chunk, 0, chunk.length, Deflater.SYNC_FLUSH);
+        buffer.write(chunk, 0, n);
+      } while (n == chunk.length);
+
+      return buffer.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+}
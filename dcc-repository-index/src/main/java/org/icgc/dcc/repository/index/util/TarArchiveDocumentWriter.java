@@ -20,20 +20,17 @@ package org.icgc.dcc.repository.index.util;
 import static com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET;
 import static org.icgc.dcc.common.core.util.Formats.formatBytes;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
-import org.apache.commons.compress.utils.CountingOutputStream;
 import org.icgc.dcc.repository.index.core.RepositoryFileIndexes;
 import org.icgc.dcc.repository.index.model.Document;
 import org.icgc.dcc.repository.index.model.DocumentType;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.io.ByteStreams;
 
 import lombok.NonNull;
 import lombok.SneakyThrows;
@@ -46,7 +43,7 @@ import lombok.extern.slf4j.Slf4j;
  * @see https://github.com/jprante/elasticsearch-knapsack
  */
 @Slf4j
-public class TarArchiveDocumentWriter implements Closeable {
+public class TarArchiveDocumentWriter implements DocumentWriter {
 
   /**
    * Constants.
@@ -73,14 +70,19 @@ public class TarArchiveDocumentWriter implements Closeable {
     addMetaEntries();
   }
 
+  @Override
   public void write(Document document) throws IOException {
-    val name = formatEntryName(document);
+    write(document.getType(), document.getId(), MAPPER.writeValueAsBytes(document.getSource()));
+  }
+
+  @Override
+  public void write(DocumentType type, String id, byte[] source) throws IOException {
+    val name = formatEntryName(type.getId(), id);
 
     try {
-      addEntry(name, document.getSource());
+      addEntry(name, source);
     } catch (Exception e) {
-      throw new RuntimeException("Failed to write document with id " + document.getId() + " of type "
-          + document.getType(), e);
+      throw new RuntimeException("Failed to write document with id " + id + " of type " + type, e);
     }
   }
 
@@ -105,21 +107,19 @@ public class TarArchiveDocumentWriter implements Closeable {
   }
 
   private void addEntry(String name, ObjectNode source) throws IOException {
-    val size = getSize(source);
+    addEntry(name, MAPPER.writeValueAsBytes(source));
+  }
 
+  private void addEntry(String name, byte[] source) throws IOException {
     // knapsack 2.x versions needs an extra directory so we embedded them under the index
     val entry = new TarArchiveEntry(formatEntryName(indexName, name));
-    entry.setSize(size);
+    entry.setSize(source.length);
 
     archive.putArchiveEntry(entry);
-    MAPPER.writeValue(archive, source);
+    archive.write(source);
     archive.closeArchiveEntry();
   }
 
-  private static String formatEntryName(Document document) {
-    return formatEntryName(document.getType().getId(), document.getId());
-  }
-
   private static String formatEntryName(String parent, String child) {
     return String.format("%s/%s", parent, child);
   }
@@ -128,12 +128,4 @@ public class TarArchiveDocumentWriter implements Closeable {
     return new TarArchiveOutputStream(outputStream);
   }
 
-  @SneakyThrows
-  private static long getSize(ObjectNode source) {
-    val counter = new CountingOutputStream(ByteStreams.nullOutputStream());
-    MAPPER.writeValue(counter, source);
-
-    return counter.getBytesWritten();
-  }
-
 }
@@ -17,21 +17,28 @@
  */
 package org.icgc.dcc.repository.index.core;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.icgc.dcc.repository.core.RepositoryFileContextBuilder.getLocalMongoClientUri;
+import static org.icgc.dcc.repository.index.model.DocumentType.FILE_CENTRIC;
 
 import java.net.URI;
+import java.util.Optional;
 
 import org.icgc.dcc.common.core.util.URIs;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentHashStore.StoredHashes;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableMap;
+
 import lombok.Cleanup;
 import lombok.val;
 
-@Ignore("For development only")
 public class RepositoryFileIndexerTest {
 
   @Test
+  @Ignore("For development only")
   public void testIndexFiles() throws Exception {
     val mongoUri = getLocalMongoClientUri("dcc-repository");
     val esUri = URIs.getUri("es://localhost:9300");
@@ -43,6 +50,57 @@ public class RepositoryFileIndexerTest {
     indexer.indexFiles();
   }
 
+  @Test
+  public void testCreateChangeTrackerWithSourceIndex() {
+    val tracker = RepositoryFileIndexer.createChangeTracker(true, getPreviousHashes(), Optional.of("live"));
+
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI1", "{\"a\":1}")).isFalse();
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI2", "{\"a\":2}")).isTrue();
+  }
+
+  @Test
+  public void testCreateChangeTrackerWithoutSourceIndex() {
+    // Nothing is copied, so unchanged documents must still be written
+    val tracker = RepositoryFileIndexer.createChangeTracker(true, getPreviousHashes(), Optional.empty());
+
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI1", "{\"a\":1}")).isTrue();
+    assertThat(tracker.getChangedCount()).isEqualTo(1);
+    assertThat(tracker.getCurrentHashes()).containsOnlyKeys(FILE_CENTRIC.getId() + "/FI1");
+    assertThat(tracker.getDeletedDocuments()).isEmpty();
+  }
+
+  @Test
+  public void testResolveSourceIndexName() {
+    val previousHashes = new StoredHashes("live", getPreviousHashes());
+
+    assertThat(RepositoryFileIndexer.resolveSourceIndexName(true, previousHashes, Optional.of("live"), "target"))
+        .isEqualTo(Optional.of("live"));
+    assertThat(RepositoryFileIndexer.resolveSourceIndexName(false, previousHashes, Optional.of("live"), "target"))
+        .isEqualTo(Optional.empty());
+    assertThat(RepositoryFileIndexer.resolveSourceIndexName(true, previousHashes, Optional.empty(), "target"))
+        .isEqualTo(Optional.empty());
+    assertThat(RepositoryFileIndexer.resolveSourceIndexName(true, previousHashes, Optional.of("live"), "live"))
+        .isEqualTo(Optional.empty());
+  }
+
+  @Test
+  public void testResolveSourceIndexNameWithHashesOfOtherIndex() {
+    // E.g. a full or restore run replaced the index the hashes were recorded for
+    val previousHashes = new StoredHashes("old", getPreviousHashes());
+
+    assertThat(RepositoryFileIndexer.resolveSourceIndexName(true, previousHashes, Optional.of("live"), "target"))
+        .isEqualTo(Optional.empty());
+    assertThat(RepositoryFileIndexer.resolveSourceIndexName(true, new StoredHashes(null, getPreviousHashes()),
+        Optional.of("live"), "target")).isEqualTo(Optional.empty());
+  }
+
+  private static ImmutableMap<String, String> getPreviousHashes() {
+    val previous = DocumentChangeTracker.recording();
+    previous.isChanged(FILE_CENTRIC, "FI1", "{\"a\":1}");
+
+    return ImmutableMap.copyOf(previous.getCurrentHashes());
+  }
+
   static URI getHdfsArchiveUri() {
     return URIs.getUri("hdfs://hdfs@" + System.getProperty("hostname") + "/tmp/repository.tar.gz");
   }
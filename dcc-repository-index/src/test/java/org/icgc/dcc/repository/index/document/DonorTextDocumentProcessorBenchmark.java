@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.document;
+
+import static java.lang.management.MemoryType.HEAP;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+import static org.icgc.dcc.common.core.util.Formats.formatBytes;
+import static org.icgc.dcc.repository.core.RepositoryFileContextBuilder.getLocalMongoClientUri;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.client.transport.TransportClient;
+import org.icgc.dcc.repository.index.document.DonorTextDocumentProcessor.Aggregation;
+import org.icgc.dcc.repository.index.model.Document;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
+import org.icgc.dcc.repository.index.util.LoggingBulkListener;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Ignore("For development only")
+public class DonorTextDocumentProcessorBenchmark {
+
+  @Test
+  public void testAggregations() throws Exception {
+    val collected = aggregate(Aggregation.COLLECTED);
+    val sorted = aggregate(Aggregation.SORTED);
+
+    assertThat(sorted).isEqualTo(collected);
+  }
+
+  private static Map<String, String> aggregate(Aggregation aggregation) throws Exception {
+    @Cleanup
+    val client = new TransportClient();
+    @Cleanup
+    val bulkProcessor = BulkProcessor.builder(client, new LoggingBulkListener()).build();
+    @Cleanup
+    val processor = new DonorTextDocumentProcessor(getLocalMongoClientUri("dcc-repository"), "test", bulkProcessor,
+        new NullDocumentWriter(), DocumentChangeTracker.untracked());
+
+    // Only retain a digest so that the retained documents do not dominate the measurement
+    val documents = Maps.<String, String> newHashMap();
+    System.gc();
+    resetPeakHeapUsage();
+
+    val watch = Stopwatch.createStarted();
+    processor.aggregation(aggregation).eachFileDonor(document -> documents.put(document.getId(), digest(document)));
+
+    log.info("{}: {} donors in {}, peak heap {}", aggregation, documents.size(), watch,
+        formatBytes(getPeakHeapUsage()));
+
+    return documents;
+  }
+
+  @SneakyThrows
+  private static String digest(Document document) {
+    val json = DEFAULT.writeValueAsString(document.getSource());
+    return Hashing.murmur3_128().hashString(json, UTF_8).toString();
+  }
+
+  private static void resetPeakHeapUsage() {
+    for (val pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  private static long getPeakHeapUsage() {
+    long peak = 0;
+    for (val pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+
+    return peak;
+  }
+
+  private static class NullDocumentWriter implements DocumentWriter {
+
+    @Override
+    public void write(Document document) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.document;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+import static org.icgc.dcc.repository.core.RepositoryFileContextBuilder.getLocalMongoClientUri;
+
+import java.util.Map;
+
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.client.transport.TransportClient;
+import org.icgc.dcc.repository.index.model.Document;
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker;
+import org.icgc.dcc.repository.index.util.DocumentWriter;
+import org.icgc.dcc.repository.index.util.LoggingBulkListener;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Maps;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import lombok.Cleanup;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Ignore("For development only")
+public class FileCentricDocumentProcessorBenchmark {
+
+  /**
+   * Constants.
+   */
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+  private static final int RUN_COUNT = 3;
+
+  @Test
+  public void testTranscode() throws Exception {
+    @Cleanup
+    val client = new TransportClient();
+    @Cleanup
+    val bulkProcessor = BulkProcessor.builder(client, new LoggingBulkListener()).build();
+    @Cleanup
+    val processor = new FileCentricDocumentProcessor(getLocalMongoClientUri("dcc-repository"), "test", bulkProcessor,
+        new NullDocumentWriter(), DocumentChangeTracker.untracked());
+
+    for (int i = 0; i < RUN_COUNT; i++) {
+      val trees = Maps.<String, String> newHashMap();
+      val treeWatch = Stopwatch.createStarted();
+      processor.eachFile(file -> {
+        file.remove("_id");
+        trees.put(file.get("id").textValue(), HASH_FUNCTION.hashBytes(serialize(file)).toString());
+      });
+      treeWatch.stop();
+
+      val transcodes = Maps.<String, String> newHashMap();
+      val transcodeWatch = Stopwatch.createStarted();
+      processor.eachTranscodedFile(document -> {
+        transcodes.put(document.getId(), HASH_FUNCTION.hashBytes(document.getSource()).toString());
+      });
+      transcodeWatch.stop();
+
+      log.info("Run {}: {} files: tree {}, transcode {}", i + 1, formatCount(trees.size()), treeWatch, transcodeWatch);
+      assertThat(transcodes).isEqualTo(trees);
+    }
+  }
+
+  @SneakyThrows
+  private static byte[] serialize(Object value) {
+    return DEFAULT.writeValueAsBytes(value);
+  }
+
+  private static class NullDocumentWriter implements DocumentWriter {
+
+    @Override
+    public void write(Document document) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.icgc.dcc.repository.index.model.Document;
+import org.icgc.dcc.repository.index.model.DocumentType;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import lombok.val;
+
+public class AsyncDocumentWriterTest {
+
+  @Test
+  public void testWrite() throws Exception {
+    val delegate = new CollectingDocumentWriter();
+    val writer = new AsyncDocumentWriter(delegate, 2);
+
+    for (int i = 0; i < 100; i++) {
+      writer.write(createDocument(i));
+    }
+    writer.close();
+
+    assertThat(delegate.documents).hasSize(100);
+    assertThat(delegate.documents.get(0).getId()).isEqualTo("0");
+    assertThat(delegate.documents.get(99).getId()).isEqualTo("99");
+    assertThat(delegate.closed).isTrue();
+    assertThat(delegate.aborted).isFalse();
+  }
+
+  @Test
+  public void testAbort() throws Exception {
+    val delegate = new CollectingDocumentWriter();
+    val writer = new AsyncDocumentWriter(delegate, 2);
+
+    writer.write(createDocument(1));
+    writer.abort();
+
+    assertThat(delegate.closed).isFalse();
+    assertThat(delegate.aborted).isTrue();
+  }
+
+  @Test(expected = IOException.class)
+  public void testWriteError() throws Exception {
+    val writer = new AsyncDocumentWriter(new DocumentWriter() {
+
+      @Override
+      public void write(Document document) throws IOException {
+        throw new IOException("Disk full");
+      }
+
+      @Override
+      public void close() {
+      }
+
+    }, 2);
+
+    writer.write(createDocument(1));
+    writer.close();
+  }
+
+  private static Document createDocument(int id) {
+    return new Document(DocumentType.FILE_CENTRIC, String.valueOf(id), DEFAULT.createObjectNode());
+  }
+
+  private static class CollectingDocumentWriter implements DocumentWriter {
+
+    final List<Document> documents = Lists.newArrayList();
+    boolean closed;
+    boolean aborted;
+
+    @Override
+    public void write(Document document) throws IOException {
+      documents.add(document);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public void abort() {
+      aborted = true;
+    }
+
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.bson.BasicBSONEncoder;
+import org.bson.types.ObjectId;
+import org.junit.Test;
+
+import com.mongodb.BasicDBObject;
+
+import lombok.val;
+
+public class BsonJsonTranscoderTest {
+
+  @Test
+  public void testTranscode() throws Exception {
+    val file = new BasicDBObject("_id", new ObjectId())
+        .append("id", "FI1")
+        .append("file_size", 12345678901L)
+        .append("count", 3)
+        .append("ratio", 0.5)
+        .append("valid", true)
+        .append("access", null)
+        .append("donors", Arrays.asList(
+            new BasicDBObject("donor_id", "DO1").append("other_identifiers", new BasicDBObject("x", "y")),
+            new BasicDBObject("donor_id", "DO2")));
+    val bson = new BasicBSONEncoder().encode(file);
+
+    val transcoder = new BsonJsonTranscoder("id", "_id");
+    val document = transcoder.transcode(bson, bson.length);
+
+    assertThat(document.getId()).isEqualTo("FI1");
+    assertThat(new String(document.getSource(), UTF_8)).isEqualTo(
+        "{\"id\":\"FI1\",\"file_size\":12345678901,\"count\":3,\"ratio\":0.5,\"valid\":true,\"access\":null,"
+            + "\"donors\":[{\"donor_id\":\"DO1\",\"other_identifiers\":{\"x\":\"y\"}},{\"donor_id\":\"DO2\"}]}");
+
+    // Buffers are reused
+    val nextBson = new BasicBSONEncoder().encode(new BasicDBObject("id", "FI2"));
+    val next = transcoder.transcode(nextBson, nextBson.length);
+    assertThat(new String(next.getSource(), UTF_8)).isEqualTo("{\"id\":\"FI2\"}");
+  }
+
+}
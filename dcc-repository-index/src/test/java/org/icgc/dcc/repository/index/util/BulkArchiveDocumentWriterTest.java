@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.common.core.json.JsonNodeBuilders.object;
+
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.icgc.dcc.repository.index.model.Document;
+import org.icgc.dcc.repository.index.model.DocumentType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import lombok.val;
+
+public class BulkArchiveDocumentWriterTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testWriteRead() throws Exception {
+    val fileSystem = FileSystem.getLocal(new Configuration());
+    val archivePath = new Path(tmp.newFolder().getAbsolutePath());
+
+    val writer = new BulkArchiveDocumentWriter(fileSystem, archivePath, 2);
+    writer.write(new Document(DocumentType.FILE_CENTRIC, "FI1", object().with("id", "FI1").end()));
+    writer.write(new Document(DocumentType.FILE_CENTRIC, "FI2", object().with("id", "FI2").end()));
+    writer.write(new Document(DocumentType.DONOR_TEXT, "DO1", object().with("id", "DO1").end()));
+    writer.close();
+
+    val reader = new BulkArchiveReader(fileSystem, archivePath);
+    assertThat(reader.readSettings()).isNotNull();
+    assertThat(reader.readTypeMappings()).containsKeys("file-centric", "donor-text");
+    assertThat(reader.hasDocuments(DocumentType.FILE_TEXT)).isFalse();
+
+    val documents = Maps.<String, String> newLinkedHashMap();
+    val count = reader.readDocuments(DocumentType.FILE_CENTRIC, documents::put);
+
+    assertThat(count).isEqualTo(2);
+    assertThat((Map<String, String>) documents)
+        .containsEntry("FI1", "{\"id\":\"FI1\"}")
+        .containsEntry("FI2", "{\"id\":\"FI2\"}");
+  }
+
+  @Test
+  public void testWriteReplacesPreviousArchive() throws Exception {
+    val fileSystem = FileSystem.getLocal(new Configuration());
+    val archivePath = new Path(tmp.newFolder().getAbsolutePath());
+
+    val previous = new BulkArchiveDocumentWriter(fileSystem, archivePath, 1);
+    previous.write(new Document(DocumentType.FILE_TEXT, "FI1", object().with("id", "FI1").end()));
+    previous.close();
+
+    val writer = new BulkArchiveDocumentWriter(fileSystem, archivePath, 1);
+    writer.write(new Document(DocumentType.FILE_CENTRIC, "FI1", object().with("id", "FI1").end()));
+    writer.close();
+
+    val reader = new BulkArchiveReader(fileSystem, archivePath);
+    assertThat(reader.hasDocuments(DocumentType.FILE_CENTRIC)).isTrue();
+    assertThat(reader.hasDocuments(DocumentType.FILE_TEXT)).isFalse();
+  }
+
+  @Test
+  public void testAbortKeepsPreviousArchive() throws Exception {
+    val fileSystem = FileSystem.getLocal(new Configuration());
+    val archivePath = new Path(tmp.newFolder().getAbsolutePath());
+
+    val previous = new BulkArchiveDocumentWriter(fileSystem, archivePath, 1);
+    previous.write(new Document(DocumentType.FILE_TEXT, "FI1", object().with("id", "FI1").end()));
+    previous.close();
+
+    val writer = new BulkArchiveDocumentWriter(fileSystem, archivePath, 1);
+    writer.write(new Document(DocumentType.FILE_CENTRIC, "FI1", object().with("id", "FI1").end()));
+    writer.abort();
+
+    val reader = new BulkArchiveReader(fileSystem, archivePath);
+    assertThat(reader.hasDocuments(DocumentType.FILE_CENTRIC)).isFalse();
+    assertThat(reader.hasDocuments(DocumentType.FILE_TEXT)).isTrue();
+    assertThat(fileSystem.exists(new Path(archivePath.getParent(), archivePath.getName() + ".tmp"))).isFalse();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReadIncompleteArchive() throws Exception {
+    val fileSystem = FileSystem.getLocal(new Configuration());
+    val archivePath = new Path(tmp.newFolder().getAbsolutePath());
+    fileSystem.create(new Path(archivePath, BulkArchiveDocumentWriter.SETTINGS_FILE_NAME)).close();
+
+    new BulkArchiveReader(fileSystem, archivePath);
+  }
+
+  @Test
+  public void testWriteReadMultipleBlocks() throws Exception {
+    val fileSystem = FileSystem.getLocal(new Configuration());
+    val archivePath = new Path(tmp.newFolder().getAbsolutePath());
+
+    // Spans several compression blocks
+    val padding = Strings.repeat("x", 100);
+    val documentCount = 3 * ParallelGZIPOutputStream.DEFAULT_BLOCK_SIZE / padding.length();
+
+    val writer = new BulkArchiveDocumentWriter(fileSystem, archivePath, 4);
+    for (int i = 0; i < documentCount; i++) {
+      writer.write(new Document(DocumentType.FILE_CENTRIC, "FI" + i, object().with("padding", padding).end()));
+    }
+    writer.close();
+
+    val reader = new BulkArchiveReader(fileSystem, archivePath);
+    val ids = Sets.<String> newHashSet();
+    val count = reader.readDocuments(DocumentType.FILE_CENTRIC, (id, source) -> ids.add(id));
+
+    assertThat(count).isEqualTo(documentCount);
+    assertThat(ids).hasSize(documentCount).contains("FI0", "FI" + (documentCount - 1));
+  }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.repository.index.model.DocumentType.FILE_CENTRIC;
+
+import org.icgc.dcc.repository.index.util.DocumentChangeTracker.DocumentKey;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.val;
+
+public class DocumentChangeTrackerTest {
+
+  @Test
+  public void testIsChanged() {
+    val previous = new DocumentChangeTracker(ImmutableMap.of());
+    previous.isChanged(FILE_CENTRIC, "FI1", "{\"a\":1}");
+    previous.isChanged(FILE_CENTRIC, "FI2", "{\"a\":2}");
+    previous.isChanged(FILE_CENTRIC, "FI3", "{\"a\":3}");
+
+    val tracker = new DocumentChangeTracker(previous.getCurrentHashes());
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI1", "{\"a\":1}")).isFalse();
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI2", "{\"a\":4}")).isTrue();
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI4", "{\"a\":5}")).isTrue();
+
+    assertThat(tracker.getChangedCount()).isEqualTo(2);
+    assertThat(tracker.getDeletedDocuments()).containsOnly(new DocumentKey(FILE_CENTRIC.getId(), "FI3"));
+  }
+
+  @Test
+  public void testRecording() {
+    val tracker = DocumentChangeTracker.recording();
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI1", "{\"a\":1}")).isTrue();
+    assertThat(tracker.getCurrentHashes()).containsOnlyKeys(FILE_CENTRIC.getId() + "/FI1");
+    assertThat(tracker.getDeletedDocuments()).isEmpty();
+  }
+
+  @Test
+  public void testUntracked() {
+    val tracker = DocumentChangeTracker.untracked();
+    assertThat(tracker.isChanged(FILE_CENTRIC, "FI1", "{\"a\":1}")).isTrue();
+    assertThat(tracker.getCurrentHashes()).isEmpty();
+    assertThat(tracker.getDeletedDocuments()).isEmpty();
+  }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.index.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+import lombok.val;
+
+public class ParallelGZIPOutputStreamTest {
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    val data = createData(1024 * 1024 + 7);
+
+    val buffer = new ByteArrayOutputStream();
+    try (ParallelGZIPOutputStream gzip = new ParallelGZIPOutputStream(buffer, 4, 64 * 1024)) {
+      gzip.write(data, 0, 100);
+      gzip.flush();
+      gzip.write(data[100]);
+      gzip.flush();
+      gzip.write(data, 101, data.length - 101);
+    }
+
+    val actual = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+    assertThat(actual).isEqualTo(data);
+  }
+
+  @Test
+  public void testRoundTripSingleMember() throws Exception {
+    // Knapsack reads archives with a commons-compress stream that stops after the first gzip member
+    val data = createData(3 * ParallelGZIPOutputStream.DEFAULT_BLOCK_SIZE + 7);
+
+    val buffer = new ByteArrayOutputStream();
+    try (ParallelGZIPOutputStream gzip = new ParallelGZIPOutputStream(buffer, 4)) {
+      gzip.write(data);
+    }
+
+    val actual = ByteStreams.toByteArray(new GzipCompressorInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+    assertThat(actual).isEqualTo(data);
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    val buffer = new ByteArrayOutputStream();
+    new ParallelGZIPOutputStream(buffer, 2).close();
+
+    val actual = ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+    assertThat(actual).isEmpty();
+  }
+
+  private static byte[] createData(int size) {
+    val random = new Random(1);
+    val data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) ('a' + random.nextInt(6));
+    }
+
+    return data;
+  }
+
+}
@@ -19,18 +19,20 @@ package org.icgc.dcc.repository.pcawg;
 
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.repository.core.model.RepositorySource.PCAWG;
+import static org.icgc.dcc.repository.pcawg.core.PCAWGFileProcessor.DEFAULT_THREAD_COUNT;
 import static org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader.DEFAULT_PCAWG_DONOR_ARCHIVE_URL;
 
 import java.net.URL;
+import java.util.stream.Stream;
 
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.util.GenericRepositorySourceFileImporter;
 import org.icgc.dcc.repository.pcawg.core.PCAWGFileProcessor;
+import org.icgc.dcc.repository.pcawg.model.PCAWGDonor;
 import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
+import lombok.Cleanup;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.val;
@@ -56,11 +58,9 @@ public class PCAWGImporter extends GenericRepositorySourceFileImporter {
 
   @Override
   protected Iterable<RepositoryFile> readFiles() {
-    log.info("Reading donors...");
+    log.info("Reading and processing donor files...");
+    @Cleanup
     val donors = readDonors();
-    log.info("Finished reading {} donors", formatCount(donors));
-
-    log.info("Processing donor files...");
     val files = processFiles(donors);
     log.info("Finished processing {} donor files", formatCount(files));
 
@@ -68,13 +68,13 @@ public class PCAWGImporter extends GenericRepositorySourceFileImporter {
   }
 
   @SneakyThrows
-  private Iterable<ObjectNode> readDonors() {
+  private Stream<PCAWGDonor> readDonors() {
     val reader = new PCAWGDonorArchiveReader(archiveUrl);
     return reader.readDonors();
   }
 
-  private Iterable<RepositoryFile> processFiles(Iterable<ObjectNode> donors) {
-    val processor = new PCAWGFileProcessor(context);
+  private Iterable<RepositoryFile> processFiles(Stream<PCAWGDonor> donors) {
+    val processor = new PCAWGFileProcessor(context).threadCount(DEFAULT_THREAD_COUNT);
     return processor.processDonors(donors);
   }
 
@@ -18,17 +18,15 @@
 package org.icgc.dcc.repository.pcawg.core;
 
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableSet;
-import static org.icgc.dcc.common.core.util.stream.Streams.stream;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getDccProjectCode;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getSubmitterDonorId;
 
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.icgc.dcc.repository.core.RepositoryIdResolver;
+import org.icgc.dcc.repository.pcawg.model.PCAWGDonor;
 import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
+import lombok.Cleanup;
 import lombok.SneakyThrows;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
@@ -38,10 +36,10 @@ public class PCAWGDonorIdResolver implements RepositoryIdResolver {
 
   @Override
   public Set<String> resolveIds() {
-    val donors = readDonors();
-
     log.info("Collecting PCAWG study donor ids...");
-    val submittedDonorIds = stream(donors)
+    @Cleanup
+    val donors = readDonors();
+    val submittedDonorIds = donors
         .map(donor -> qualifyDonorId(donor))
         .collect(toImmutableSet());
     log.info("Finish collecting PCAWG study donor ids");
@@ -53,12 +51,12 @@ public class PCAWGDonorIdResolver implements RepositoryIdResolver {
     return projectCode + ":" + submittedDonorId;
   }
 
-  private static String qualifyDonorId(ObjectNode donor) {
-    return qualifyDonorId(getDccProjectCode(donor), getSubmitterDonorId(donor));
+  private static String qualifyDonorId(PCAWGDonor donor) {
+    return qualifyDonorId(donor.getDccProjectCode(), donor.getSubmitterDonorId());
   }
 
   @SneakyThrows
-  private Iterable<ObjectNode> readDonors() {
+  private Stream<PCAWGDonor> readDonors() {
     val reader = new PCAWGDonorArchiveReader();
     return reader.readDonors();
   }
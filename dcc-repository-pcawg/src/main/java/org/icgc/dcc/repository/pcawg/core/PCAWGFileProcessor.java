@@ -19,12 +19,11 @@ package org.icgc.dcc.repository.pcawg.core;
 
 import static com.google.common.base.Objects.firstNonNull;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Strings.emptyToNull;
 import static com.google.common.primitives.Longs.max;
 import static java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME;
-import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
-import static org.icgc.dcc.common.core.util.stream.Streams.stream;
 import static org.icgc.dcc.repository.core.model.Repositories.getPCAWGRepository;
 import static org.icgc.dcc.repository.core.model.RepositoryProjects.getProjectByProjectCode;
 import static org.icgc.dcc.repository.pcawg.core.PCAWGFileInfoResolver.resolveAnalysisMethod;
@@ -35,25 +34,12 @@ import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.PCAWG_CONSENSUS_C
 import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.PCAWG_CONSENSUS_VARIANT_TYPES;
 import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.PCAWG_LIBRARY_STRATEGIES;
 import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.PCAWG_SPECIMEN_CLASSES;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getBamFileMd5sum;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getBamFileName;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getBamFileSize;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getDccProjectCode;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getFileMd5sum;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getFileName;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getFileSize;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getFiles;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getGnosId;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getGnosLastModified;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getGnosRepo;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getSpecimenType;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getSubmitterDonorId;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getSubmitterSampleId;
-import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.getSubmitterSpecimenId;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -66,25 +52,47 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.FileFormat;
 import org.icgc.dcc.repository.core.model.RepositoryFile.OtherIdentifiers;
 import org.icgc.dcc.repository.core.model.RepositoryFile.ReferenceGenome;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Study;
+import org.icgc.dcc.repository.core.util.FileNameIndex;
 import org.icgc.dcc.repository.pcawg.model.Analysis;
+import org.icgc.dcc.repository.pcawg.model.PCAWGDonor;
+import org.icgc.dcc.repository.pcawg.model.PCAWGFile;
+import org.icgc.dcc.repository.pcawg.model.PCAWGSpecimen;
+import org.icgc.dcc.repository.pcawg.model.PCAWGWorkflow;
 import org.icgc.dcc.repository.pcawg.model.Workflow;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Queues;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.SneakyThrows;
 import lombok.val;
+import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class PCAWGFileProcessor extends RepositoryFileProcessor {
 
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+  private static final int MAX_PENDING_PER_THREAD = 4;
+
+  /**
+   * Configuration.
+   */
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int threadCount = 1;
+
   public PCAWGFileProcessor(RepositoryFileContext context) {
     super(context);
   }
 
-  public Iterable<RepositoryFile> processDonors(@NonNull Iterable<ObjectNode> donors) {
+  public Iterable<RepositoryFile> processDonors(@NonNull Stream<PCAWGDonor> donors) {
     log.info("Creating donor files...");
     val donorFiles = createDonorFiles(donors);
 
@@ -97,26 +105,75 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
     return donorFiles;
   }
 
-  private Iterable<RepositoryFile> createDonorFiles(Iterable<ObjectNode> donors) {
-    return stream(donors).map(this::processDonor).flatMap(List::stream).collect(toImmutableList());
+  private Iterable<RepositoryFile> createDonorFiles(Stream<PCAWGDonor> donors) {
+    if (threadCount > 1) {
+      return createDonorFilesInParallel(donors);
+    }
+
+    return donors.map(this::processDonor).flatMap(List::stream).collect(toImmutableList());
   }
 
-  private List<RepositoryFile> processDonor(@NonNull ObjectNode donor) {
+  /**
+   * Processes donors on a pool of {@link #threadCount} workers. Results are collected in donor order so the output is
+   * identical to the sequential mode, and the number of donors in flight is bounded.
+   */
+  @SneakyThrows
+  private Iterable<RepositoryFile> createDonorFilesInParallel(Stream<PCAWGDonor> donors) {
+    log.info("Processing donors using {} threads...", threadCount);
+    val executor = Executors.newFixedThreadPool(threadCount,
+        new ThreadFactoryBuilder().setNameFormat("pcawg-donor-%d").setDaemon(true).build());
+
+    try {
+      val donorFiles = ImmutableList.<RepositoryFile> builder();
+      val pending = Queues.<Future<List<RepositoryFile>>> newArrayDeque();
+      val maxPending = threadCount * MAX_PENDING_PER_THREAD;
+
+      val iterator = donors.iterator();
+      while (iterator.hasNext()) {
+        val donor = iterator.next();
+        pending.addLast(executor.submit(() -> processDonor(donor)));
+
+        while (pending.size() >= maxPending) {
+          donorFiles.addAll(getDonorFiles(pending.removeFirst()));
+        }
+      }
+      while (!pending.isEmpty()) {
+        donorFiles.addAll(getDonorFiles(pending.removeFirst()));
+      }
+
+      return donorFiles.build();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<RepositoryFile> getDonorFiles(Future<List<RepositoryFile>> future) throws InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private List<RepositoryFile> processDonor(@NonNull PCAWGDonor donor) {
     // Process general files
     val donorFiles = ImmutableList.<RepositoryFile> builder();
     for (val libraryStrategy : PCAWG_LIBRARY_STRATEGIES) {
       for (val specimenClass : PCAWG_SPECIMEN_CLASSES) {
-        for (val specimen : resolveSpecimens(donor, libraryStrategy, specimenClass)) {
-          for (val workflow : resolveWorkflows(libraryStrategy, specimenClass, specimen))
+        for (val specimen : donor.getSpecimens(libraryStrategy, specimenClass)) {
+          for (val workflow : resolveWorkflows(libraryStrategy, specimenClass, specimen)) {
+            val fileIndex = indexFiles(workflow.getWorkflow());
             for (val workflowFile : resolveWorkflowFiles(workflow)) {
               donorFiles.add(
                   createDonorFile(
-                      getDccProjectCode(donor),
-                      getSubmitterDonorId(donor),
+                      donor.getDccProjectCode(),
+                      donor.getSubmitterDonorId(),
                       workflow.getAnalysis(),
                       workflow.getWorkflow(),
+                      fileIndex,
                       workflowFile));
             }
+          }
         }
       }
     }
@@ -124,15 +181,17 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
     // Process consensus VCFs
     for (val consensusCallType : PCAWG_CONSENSUS_CALL_TYPES) {
       for (val variantType : PCAWG_CONSENSUS_VARIANT_TYPES) {
-        for (val specimen : resolveSpecimens(donor, consensusCallType, variantType)) {
-          val workflow = resolveConsenusWorkflow(consensusCallType, variantType, specimen);
+        for (val consensusWorkflow : donor.getConsensusWorkflows(consensusCallType, variantType)) {
+          val workflow = resolveConsenusWorkflow(consensusCallType, variantType, consensusWorkflow);
+          val fileIndex = indexFiles(workflow.getWorkflow());
           for (val workflowFile : resolveWorkflowFiles(workflow)) {
             donorFiles.add(
                 createDonorFile(
-                    getDccProjectCode(donor),
-                    getSubmitterDonorId(donor),
+                    donor.getDccProjectCode(),
+                    donor.getSubmitterDonorId(),
                     workflow.getAnalysis(),
                     workflow.getWorkflow(),
+                    fileIndex,
                     workflowFile));
           }
         }
@@ -144,7 +203,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
   }
 
   private RepositoryFile createDonorFile(String projectCode, String submittedDonorId, Analysis analysis,
-      JsonNode workflow, JsonNode workflowFile) {
+      PCAWGWorkflow workflow, FileNameIndex<PCAWGFile> fileIndex, PCAWGFile workflowFile) {
 
     //
     // Prepare
@@ -153,10 +212,10 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
     val project = getProjectByProjectCode(projectCode).orNull();
     checkState(project != null, "No project found for project code '%s'", projectCode);
 
-    val gnosId = getGnosId(workflow);
-    val specimenType = getSpecimenType(workflow);
-    val submitterSpecimenId = getSubmitterSpecimenId(workflow);
-    val submitterSampleId = getSubmitterSampleId(workflow);
+    val gnosId = workflow.getGnosId();
+    val specimenType = workflow.getSpecimenType();
+    val submitterSpecimenId = workflow.getSubmitterSpecimenId();
+    val submitterSampleId = workflow.getSubmitterSampleId();
 
     val fileName = resolveFileName(workflowFile);
     val fileSize = resolveFileSize(workflowFile);
@@ -165,9 +224,9 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
 
     val pcawgRepositories = resolvePCAWGRepositories(workflow);
 
-    val baiFile = resolveBaiFile(workflow, fileName);
-    val tbiFile = resolveTbiFile(workflow, fileName);
-    val idxFile = resolveIdxFile(workflow, fileName);
+    val baiFile = fileIndex.getCompanion(fileName, ".bai");
+    val tbiFile = fileIndex.getCompanion(fileName, ".tbi");
+    val idxFile = fileIndex.getCompanion(fileName, ".idx");
 
     //
     // Create
@@ -200,12 +259,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
           .setLastModified(resolveLastModified(workflow))
           .setRepoDataBundleId(gnosId)
           .setRepoFileId(null) // GNOS does not have individual file ids
-          .setRepoType(pcawgRepository.getType().getId())
-          .setRepoOrg(pcawgRepository.getSource().getId())
-          .setRepoName(pcawgRepository.getName())
-          .setRepoCode(pcawgRepository.getCode())
-          .setRepoCountry(pcawgRepository.getCountry())
-          .setRepoBaseUrl(pcawgRepository.getBaseUrl())
+          .setRepository(pcawgRepository)
           .setRepoDataPath(pcawgRepository.getType().getDataPath())
           .setRepoMetadataPath(pcawgRepository.getType().getMetadataPath());
 
@@ -218,7 +272,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
             .setRepoFileId(null) // TODO: Resolve
             .setFileName(baiFileName)
             .setFileFormat(FileFormat.BAI)
-            .setFileSize(getFileSize(baiFile.get()))
+            .setFileSize(baiFile.get().getFileSize())
             .setFileMd5sum(resolveMd5sum(baiFile.get()));
       }
       if (tbiFile.isPresent()) {
@@ -229,7 +283,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
             .setObjectId(tbiObjectId)
             .setFileName(tbiFileName)
             .setFileFormat(FileFormat.TBI)
-            .setFileSize(getFileSize(tbiFile.get()))
+            .setFileSize(tbiFile.get().getFileSize())
             .setFileMd5sum(resolveMd5sum(tbiFile.get()));
       }
       if (idxFile.isPresent()) {
@@ -240,7 +294,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
             .setObjectId(idxObjectId)
             .setFileName(idxFileName)
             .setFileFormat(FileFormat.IDX)
-            .setFileSize(getFileSize(idxFile.get()))
+            .setFileSize(idxFile.get().getFileSize())
             .setFileMd5sum(resolveMd5sum(idxFile.get()));
       }
     }
@@ -269,84 +323,68 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
   // Utilities
   //
 
-  private static Iterable<JsonNode> resolveSpecimens(ObjectNode donor, String libraryStrategy, String specimenClass) {
-    val specimens = donor.path(libraryStrategy).path(specimenClass);
-    return specimens.isArray() ? specimens : singleton(specimens);
-  }
-
-  private static Workflow resolveConsenusWorkflow(String consensusCallType, String variantType, JsonNode specimen) {
+  private static Workflow resolveConsenusWorkflow(String consensusCallType, String variantType,
+      PCAWGWorkflow workflow) {
     val analysis = analysis()
         .libraryStrategy("wgs")
         .specimenClass("tumor_specimen")
         .variantType(variantType)
         .workflowType(consensusCallType).build();
 
-    return new Workflow(analysis, specimen);
+    return new Workflow(analysis, workflow);
   }
 
-  private static List<Workflow> resolveWorkflows(String libraryStrategy, String specimenClass, JsonNode specimen) {
+  private static List<Workflow> resolveWorkflows(String libraryStrategy, String specimenClass,
+      PCAWGSpecimen specimen) {
     val workflows = ImmutableList.<Workflow> builder();
-    for (val workflowType : resolveWorkflowTypes(specimen)) {
+    for (val entry : specimen.getWorkflows().entrySet()) {
       val analysis = analysis()
           .libraryStrategy(libraryStrategy)
           .specimenClass(specimenClass)
-          .workflowType(workflowType).build();
+          .workflowType(entry.getKey()).build();
 
-      workflows.add(new Workflow(analysis, specimen.get(workflowType)));
+      workflows.add(new Workflow(analysis, entry.getValue()));
     }
 
     return workflows.build();
   }
 
-  private static Iterable<String> resolveWorkflowTypes(JsonNode specimen) {
-    return () -> specimen.fieldNames();
-  }
-
-  private static List<JsonNode> resolveWorkflowFiles(Workflow workflow) {
+  private static List<PCAWGFile> resolveWorkflowFiles(Workflow workflow) {
     return resolveFiles(workflow.getWorkflow(), workflowFile -> !isExcluded(workflow.getAnalysis(), workflowFile))
         .collect(toImmutableList());
   }
 
-  private static Optional<JsonNode> resolveBaiFile(JsonNode workflow, String fileName) {
-    val baiFileName = fileName + ".bai";
-    return resolveFiles(workflow, file -> baiFileName.equals(resolveFileName(file))).findFirst();
-  }
-
-  private static Optional<JsonNode> resolveTbiFile(JsonNode workflow, String fileName) {
-    val tbiFileName = fileName + ".tbi";
-    return resolveFiles(workflow, file -> tbiFileName.equals(resolveFileName(file))).findFirst();
+  private static FileNameIndex<PCAWGFile> indexFiles(PCAWGWorkflow workflow) {
+    val files = firstNonNull(workflow.getFiles(), ImmutableList.<PCAWGFile> of());
+    return FileNameIndex.index(files, PCAWGFileProcessor::resolveFileName);
   }
 
-  private static Optional<JsonNode> resolveIdxFile(JsonNode workflow, String fileName) {
-    val idxFileName = fileName + ".idx";
-    return resolveFiles(workflow, file -> idxFileName.equals(resolveFileName(file))).findFirst();
+  private static Stream<PCAWGFile> resolveFiles(PCAWGWorkflow workflow, Predicate<? super PCAWGFile> filter) {
+    val files = workflow.getFiles();
+    return files == null ? Stream.empty() : files.stream().filter(filter);
   }
 
-  private static Stream<JsonNode> resolveFiles(JsonNode workflow, Predicate<? super JsonNode> filter) {
-    return stream(getFiles(workflow)).filter(filter);
-  }
-
-  private static List<Repository> resolvePCAWGRepositories(JsonNode workflow) {
-    return stream(getGnosRepo(workflow))
-        .map(genosRepo -> getPCAWGRepository(genosRepo.asText()))
+  private static List<Repository> resolvePCAWGRepositories(PCAWGWorkflow workflow) {
+    return workflow.getGnosRepo().stream()
+        .map(genosRepo -> getPCAWGRepository(genosRepo))
         .collect(toImmutableList());
   }
 
-  private static String resolveFileName(JsonNode workflowFile) {
-    return firstNonNull(getBamFileName(workflowFile), getFileName(workflowFile));
+  private static String resolveFileName(PCAWGFile workflowFile) {
+    return firstNonNull(emptyToNull(workflowFile.getBamFileName()), getFileName(workflowFile));
   }
 
-  private static String resolveMd5sum(JsonNode workflowFile) {
-    return firstNonNull(getBamFileMd5sum(workflowFile), getFileMd5sum(workflowFile));
+  private static String resolveMd5sum(PCAWGFile workflowFile) {
+    return firstNonNull(emptyToNull(workflowFile.getBamFileMd5sum()), emptyToNull(workflowFile.getFileMd5sum()));
   }
 
-  private static long resolveFileSize(JsonNode workflowFile) {
+  private static long resolveFileSize(PCAWGFile workflowFile) {
     // First non-zero
-    return max(getFileSize(workflowFile), getBamFileSize(workflowFile));
+    return max(workflowFile.getFileSize(), workflowFile.getBamFileSize());
   }
 
-  private static long resolveLastModified(JsonNode workflow) {
-    val lastModified = getGnosLastModified(workflow);
+  private static long resolveLastModified(PCAWGWorkflow workflow) {
+    val lastModified = workflow.getGnosLastModified();
     checkState(lastModified != null, "Date is null for workflow: %s", workflow);
     val dateTime = ISO_OFFSET_DATE_TIME.parse(lastModified, Instant::from);
 
@@ -357,7 +395,7 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
    * @see https://wiki.oicr.on.ca/display/DCCSOFT/Uniform+metadata+JSON+document+for+ICGC+Data+Repositories#
    * UniformmetadataJSONdocumentforICGCDataRepositories-Datatypeassignmentforvariantcallresultfiles
    */
-  private static boolean isExcluded(Analysis analysis, JsonNode workflowFile) {
+  private static boolean isExcluded(Analysis analysis, PCAWGFile workflowFile) {
     val excluded = true;
     val included = false;
     val fileName = getFileName(workflowFile);
@@ -387,20 +425,24 @@ public class PCAWGFileProcessor extends RepositoryFileProcessor {
     return included;
   }
 
-  private static boolean isBamFile(JsonNode file) {
+  private static boolean isBamFile(PCAWGFile file) {
     return hasFileExtension(file, ".bam");
   }
 
-  private static boolean isVcfFile(JsonNode file) {
+  private static boolean isVcfFile(PCAWGFile file) {
     return hasFileExtension(file, ".vcf.gz");
   }
 
-  private static boolean isXmlFile(JsonNode file) {
+  private static boolean isXmlFile(PCAWGFile file) {
     return hasFileExtension(file, ".xml");
   }
 
-  private static boolean hasFileExtension(JsonNode file, String fileType) {
+  private static boolean hasFileExtension(PCAWGFile file, String fileType) {
     return getFileName(file).toLowerCase().endsWith(fileType.toLowerCase());
   }
 
+  private static String getFileName(PCAWGFile file) {
+    return emptyToNull(file.getFileName());
+  }
+
 }
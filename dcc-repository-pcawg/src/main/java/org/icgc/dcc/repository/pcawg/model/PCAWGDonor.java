@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.pcawg.model;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.Data;
+import lombok.NonNull;
+import lombok.val;
+
+/**
+ * A donor line of the PCAWG donor archive, bound to the fields needed to create repository files.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PCAWGDonor {
+
+  String dccProjectCode;
+  String submitterDonorId;
+
+  /**
+   * Specimens keyed by specimen class.
+   */
+  Map<String, List<PCAWGSpecimen>> rnaSeq = emptyMap();
+  Map<String, List<PCAWGSpecimen>> wgs = emptyMap();
+
+  /**
+   * Consensus workflows keyed by variant type.
+   */
+  Map<String, List<PCAWGWorkflow>> consensusSomaticVariantCalls = emptyMap();
+  Map<String, List<PCAWGWorkflow>> consensusGermlineVariantCalls = emptyMap();
+
+  public List<PCAWGSpecimen> getSpecimens(@NonNull String libraryStrategy, @NonNull String specimenClass) {
+    return get(getLibraryStrategy(libraryStrategy), specimenClass);
+  }
+
+  public List<PCAWGWorkflow> getConsensusWorkflows(@NonNull String consensusCallType, @NonNull String variantType) {
+    return get(getConsensusCalls(consensusCallType), variantType);
+  }
+
+  private Map<String, List<PCAWGSpecimen>> getLibraryStrategy(String libraryStrategy) {
+    if ("rna_seq".equals(libraryStrategy)) {
+      return rnaSeq;
+    }
+
+    checkArgument("wgs".equals(libraryStrategy), "Unknown library strategy '%s'", libraryStrategy);
+    return wgs;
+  }
+
+  private Map<String, List<PCAWGWorkflow>> getConsensusCalls(String consensusCallType) {
+    if ("consensus_somatic_variant_calls".equals(consensusCallType)) {
+      return consensusSomaticVariantCalls;
+    }
+
+    checkArgument("consensus_germline_variant_calls".equals(consensusCallType),
+        "Unknown consensus call type '%s'", consensusCallType);
+    return consensusGermlineVariantCalls;
+  }
+
+  private static <T> List<T> get(Map<String, List<T>> values, String key) {
+    if (values == null) {
+      return emptyList();
+    }
+
+    val list = values.get(key);
+    return list == null ? emptyList() : list;
+  }
+
+}
@@ -17,14 +17,12 @@
  */
 package org.icgc.dcc.repository.pcawg.model;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import lombok.Value;
 
 @Value
 public class Workflow {
 
   Analysis analysis;
-  JsonNode workflow;
+  PCAWGWorkflow workflow;
 
 }
@@ -1,20 +1,25 @@
 package org.icgc.dcc.repository.pcawg.reader;
 
-import static com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE;
+import static com.fasterxml.jackson.databind.DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY;
+import static com.fasterxml.jackson.databind.PropertyNamingStrategy.CAMEL_CASE_TO_LOWER_CASE_WITH_UNDERSCORES;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
 import static org.icgc.dcc.common.core.util.URLs.getUrl;
 import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.PCAWG_ARCHIVE_BASE_URL;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.icgc.dcc.repository.pcawg.model.PCAWGDonor;
 
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.google.common.collect.ImmutableList;
 
-import lombok.Cleanup;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -38,8 +43,11 @@ public class PCAWGDonorArchiveReader {
   /**
    * Constants.
    */
-  private static final ObjectMapper MAPPER = new ObjectMapper().configure(AUTO_CLOSE_SOURCE, false);
-  private static final ObjectReader READER = MAPPER.reader(ObjectNode.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .setPropertyNamingStrategy(CAMEL_CASE_TO_LOWER_CASE_WITH_UNDERSCORES)
+      // Specimen classes such as "normal_specimen" hold a single specimen
+      .configure(ACCEPT_SINGLE_VALUE_AS_ARRAY, true);
+  private static final ObjectReader READER = MAPPER.reader(PCAWGDonor.class);
 
   /**
    * State.
@@ -51,15 +59,18 @@ public class PCAWGDonorArchiveReader {
     this.donorArchiveUrl = DEFAULT_PCAWG_DONOR_ARCHIVE_URL;
   }
 
-  public Iterable<ObjectNode> readDonors() throws IOException {
+  /**
+   * Lazily binds one donor line at a time. The returned stream holds the archive connection open and must be closed.
+   */
+  public Stream<PCAWGDonor> readDonors() throws IOException {
     log.info("Reading donors from '{}'...", donorArchiveUrl);
 
-    @Cleanup
     val iterator = readValues();
-    return ImmutableList.copyOf(iterator);
+    return StreamSupport.stream(spliteratorUnknownSize(iterator, ORDERED | NONNULL), false)
+        .onClose(() -> close(iterator));
   }
 
-  private MappingIterator<ObjectNode> readValues() throws IOException {
+  private MappingIterator<PCAWGDonor> readValues() throws IOException {
     return READER.readValues(openStream());
   }
 
@@ -68,4 +79,9 @@ public class PCAWGDonorArchiveReader {
     return donorArchiveUrl.openStream();
   }
 
-}
\ No newline at end of file
+  @SneakyThrows
+  private static void close(MappingIterator<?> iterator) {
+    iterator.close();
+  }
+
+}
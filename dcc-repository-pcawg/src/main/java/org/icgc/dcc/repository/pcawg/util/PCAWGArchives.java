@@ -17,18 +17,13 @@
  */
 package org.icgc.dcc.repository.pcawg.util;
 
-import static com.google.common.base.Strings.emptyToNull;
 import static lombok.AccessLevel.PRIVATE;
 
 import java.util.List;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.ImmutableList;
 
 import lombok.NoArgsConstructor;
-import lombok.NonNull;
 
 @NoArgsConstructor(access = PRIVATE)
 public class PCAWGArchives {
@@ -53,63 +48,4 @@ public class PCAWGArchives {
   public static final List<String> PCAWG_CONSENSUS_VARIANT_TYPES = ImmutableList.of(
       "indel", "snv_mnv");
 
-  public static String getDccProjectCode(@NonNull ObjectNode donor) {
-    return donor.get("dcc_project_code").textValue();
-  }
-
-  public static String getFileName(@NonNull JsonNode workflowFile) {
-    return emptyToNull(workflowFile.path("file_name").asText());
-  }
-
-  public static long getFileSize(@NonNull JsonNode workflowFile) {
-    return workflowFile.path("file_size").asLong();
-  }
-
-  public static String getFileMd5sum(@NonNull JsonNode workflowFile) {
-    return emptyToNull(workflowFile.path("file_md5sum").asText());
-  }
-
-  public static String getBamFileName(@NonNull JsonNode workflowFile) {
-    return emptyToNull(workflowFile.path("bam_file_name").asText());
-  }
-
-  public static long getBamFileSize(@NonNull JsonNode workflowFile) {
-    return workflowFile.path("bam_file_size").asLong();
-  }
-
-  public static String getBamFileMd5sum(@NonNull JsonNode workflowFile) {
-    return emptyToNull(workflowFile.path("bam_file_md5sum").asText());
-  }
-
-  public static String getSubmitterDonorId(@NonNull ObjectNode donor) {
-    return donor.get("submitter_donor_id").textValue();
-  }
-
-  public static String getSubmitterSpecimenId(@NonNull JsonNode workflow) {
-    return workflow.get("submitter_specimen_id").textValue();
-  }
-
-  public static String getSpecimenType(@NonNull JsonNode workflow) {
-    return workflow.get("specimen_type").textValue();
-  }
-
-  public static String getSubmitterSampleId(@NonNull JsonNode workflow) {
-    return workflow.get("submitter_sample_id").textValue();
-  }
-
-  public static String getGnosId(@NonNull JsonNode workflow) {
-    return workflow.get("gnos_id").textValue();
-  }
-
-  public static ArrayNode getGnosRepo(@NonNull JsonNode workflow) {
-    return (ArrayNode) workflow.get("gnos_repo");
-  }
-
-  public static String getGnosLastModified(@NonNull JsonNode workflow) {
-    return workflow.get("gnos_last_modified").textValue();
-  }
-
-  public static JsonNode getFiles(@NonNull JsonNode workflow) {
-    return workflow.path("files");
-  }
 }
@@ -17,19 +17,26 @@
  */
 package org.icgc.dcc.repository.pcawg.core;
 
-import static java.util.Collections.singleton;
+import static java.util.Collections.nCopies;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.icgc.dcc.common.core.json.Jackson.DEFAULT;
+import static org.icgc.dcc.repository.core.util.ObjectIds.objectId;
 import static org.icgc.dcc.repository.core.util.RepositoryFileContexts.newLocalRepositoryFileContext;
 
 import java.io.IOException;
-import java.util.Set;
+import java.net.URL;
+import java.util.stream.Stream;
 
+import org.icgc.dcc.common.core.util.UUID5;
+import org.icgc.dcc.repository.pcawg.model.PCAWGDonor;
+import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
 import org.junit.Test;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.Resources;
 
+import lombok.Cleanup;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,6 +46,7 @@ public class PCAWGFileProcessorTest {
   @Test
   public void testProcessDonors() throws Exception {
     val processor = createProcessor();
+    @Cleanup
     val donors = readDonors();
     val files = processor.processDonors(donors);
     for (val file : files) {
@@ -46,11 +54,42 @@ public class PCAWGFileProcessorTest {
     }
   }
 
-  public Set<ObjectNode> readDonors() throws IOException, JsonProcessingException {
-    val resource = Resources.getResource("fixtures/donor.with-consensus.json");
-    val donor = (ObjectNode) DEFAULT.readTree(resource);
+  @Test
+  public void testProcessDonorsInParallel() throws Exception {
+    @Cleanup
+    val stream = readDonors();
+    val donor = stream.findFirst().get();
+    val donors = nCopies(8, donor);
+
+    val expected = ImmutableList.copyOf(createProcessor().processDonors(donors.stream()));
+    val actual = ImmutableList.copyOf(createProcessor().threadCount(4).processDonors(donors.stream()));
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void testObjectIds() throws Exception {
+    int count = 0;
+    val donor = DEFAULT.readTree(getFixture());
+    for (val workflow : donor.findParents("gnos_id")) {
+      val gnosId = workflow.get("gnos_id").textValue();
+      for (val file : workflow.path("files")) {
+        val fileName = file.get("file_name").textValue();
+        val expected = UUID5.fromUTF8(UUID5.getNamespace(), Joiner.on('/').join(gnosId, fileName)).toString();
+
+        assertThat(objectId(gnosId, fileName)).isEqualTo(expected);
+        count++;
+      }
+    }
+
+    assertThat(count).isPositive();
+  }
+
+  public Stream<PCAWGDonor> readDonors() throws IOException {
+    return new PCAWGDonorArchiveReader(getFixture()).readDonors();
+  }
 
-    return singleton(donor);
+  private static URL getFixture() {
+    return Resources.getResource("fixtures/donor.with-consensus.json");
   }
 
   public PCAWGFileProcessor createProcessor() {
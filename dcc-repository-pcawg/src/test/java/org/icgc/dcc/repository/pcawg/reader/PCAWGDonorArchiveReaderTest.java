@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.pcawg.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.common.core.util.stream.Collectors.toImmutableList;
+
+import org.junit.Test;
+
+import com.google.common.io.Resources;
+
+import lombok.Cleanup;
+import lombok.val;
+
+public class PCAWGDonorArchiveReaderTest {
+
+  @Test
+  public void testReadDonors() throws Exception {
+    val reader = new PCAWGDonorArchiveReader(Resources.getResource("fixtures/donor.with-consensus.json"));
+
+    @Cleanup
+    val stream = reader.readDonors();
+    val donors = stream.collect(toImmutableList());
+    assertThat(donors).hasSize(1);
+
+    val donor = donors.get(0);
+    assertThat(donor.getDccProjectCode()).isEqualTo("THCA-US");
+    assertThat(donor.getSubmitterDonorId()).isEqualTo("0c50a2c2-1d4c-45ca-9127-f96d4db18daf");
+
+    // Single specimen objects are bound as lists
+    val normal = donor.getSpecimens("wgs", "normal_specimen");
+    assertThat(normal).hasSize(1);
+    assertThat(normal.get(0).getWorkflows()).containsOnlyKeys("bwa_alignment", "minibam");
+    assertThat(donor.getSpecimens("rna_seq", "normal_specimen").get(0).getWorkflows()).isEmpty();
+    assertThat(donor.getSpecimens("wgs", "normal_specimens")).isEmpty();
+
+    val tumour = donor.getSpecimens("wgs", "tumor_specimens");
+    assertThat(tumour).hasSize(1);
+    assertThat(tumour.get(0).getWorkflows()).hasSize(7);
+
+    // String file sizes are coerced
+    val consensus = donor.getConsensusWorkflows("consensus_somatic_variant_calls", "indel");
+    assertThat(consensus).hasSize(1);
+    assertThat(consensus.get(0).getGnosId()).isEqualTo("3dbbb626-66da-43cd-8555-234f40b15a97");
+    assertThat(consensus.get(0).getFiles().get(0).getFileSize()).isEqualTo(22889L);
+    assertThat(donor.getConsensusWorkflows("consensus_germline_variant_calls", "indel")).isEmpty();
+  }
+
+}
@@ -18,20 +18,18 @@
 package org.icgc.dcc.repository.pdc;
 
 import static org.icgc.dcc.common.core.util.Formats.formatCount;
+import static org.icgc.dcc.repository.cloud.s3.CloudS3BucketReader.DEFAULT_THREAD_COUNT;
 import static org.icgc.dcc.repository.core.model.Repositories.getPDCRepository;
 import static org.icgc.dcc.repository.core.model.RepositorySource.PDC;
 import static org.icgc.dcc.repository.pdc.s3.AWSClientFactory.createProtectedS3Client;
 
-import java.util.List;
-
+import org.icgc.dcc.repository.cloud.s3.S3ObjectSummaryStore;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.util.GenericRepositorySourceFileImporter;
 import org.icgc.dcc.repository.pdc.core.PDCFileProcessor;
 import org.icgc.dcc.repository.pdc.s3.PDCBucketReader;
 
-import com.amazonaws.services.s3.model.S3ObjectSummary;
-
 import lombok.NonNull;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
@@ -47,7 +45,7 @@ public class PDCImporter extends GenericRepositorySourceFileImporter {
   protected Iterable<RepositoryFile> readFiles() {
     log.info("Reading object summaries...");
     val objectSummaries = readObjectSummaries();
-    log.info("Read {} object summaries", formatCount(objectSummaries));
+    log.info("Read {} object summaries", formatCount(objectSummaries.size()));
 
     log.info("Processing files...");
     val files = processFiles(objectSummaries);
@@ -56,12 +54,12 @@ public class PDCImporter extends GenericRepositorySourceFileImporter {
     return files;
   }
 
-  private List<S3ObjectSummary> readObjectSummaries() {
-    val bucketReader = new PDCBucketReader(createProtectedS3Client());
-    return bucketReader.readSummaries();
+  private S3ObjectSummaryStore readObjectSummaries() {
+    val bucketReader = new PDCBucketReader(createProtectedS3Client()).threadCount(DEFAULT_THREAD_COUNT);
+    return bucketReader.readSummaryStore();
   }
 
-  private Iterable<RepositoryFile> processFiles(List<S3ObjectSummary> objectSummaries) {
+  private Iterable<RepositoryFile> processFiles(S3ObjectSummaryStore objectSummaries) {
     val fileProcessor = new PDCFileProcessor(context, getPDCRepository());
     return fileProcessor.processFiles(objectSummaries);
   }
@@ -17,11 +17,9 @@
  */
 package org.icgc.dcc.repository.pdc.core;
 
-import static java.util.stream.Collectors.toList;
-
-import java.util.List;
-import java.util.Optional;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
 
+import org.icgc.dcc.repository.cloud.s3.S3ObjectSummaryStore;
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositoryFileProcessor;
 import org.icgc.dcc.repository.core.model.Repository;
@@ -29,7 +27,7 @@ import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.core.model.RepositoryFile.FileCopy;
 import org.icgc.dcc.repository.pdc.util.PCAWGFileResolver;
 
-import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.collect.ImmutableList;
 
 import lombok.NonNull;
 import lombok.val;
@@ -47,37 +45,41 @@ public class PDCFileProcessor extends RepositoryFileProcessor {
   /**
    * Dependencies.
    */
-  private final PCAWGFileResolver resolver = new PCAWGFileResolver();
+  @NonNull
+  private final PCAWGFileResolver resolver;
 
   public PDCFileProcessor(RepositoryFileContext context, @NonNull Repository pdcRepository) {
+    this(context, pdcRepository, new PCAWGFileResolver(PCAWGFileResolver.getSnapshotFile(context.getCacheDir())));
+  }
+
+  PDCFileProcessor(RepositoryFileContext context, @NonNull Repository pdcRepository,
+      @NonNull PCAWGFileResolver resolver) {
     super(context);
     this.pdcRepository = pdcRepository;
+    this.resolver = resolver;
     log.warn("No XML files will be indexed!");
   }
 
-  public Iterable<RepositoryFile> processFiles(List<S3ObjectSummary> objectSummaries) {
-    return objectSummaries.stream()
-        .filter(this::isIncluded)
-        .map(file -> createFile(file, objectSummaries))
-        .collect(toList());
-  }
-
-  private FileCopy resolvePCAWGFileCopy(String objectId) {
-    return resolvePCAWGFile(objectId).getFileCopies().get(0);
-  }
+  public Iterable<RepositoryFile> processFiles(@NonNull S3ObjectSummaryStore objectSummaries) {
+    log.info("Processing {} object summaries...", formatCount(objectSummaries.size()));
+    val files = ImmutableList.<RepositoryFile> builder();
+    for (int i = 0; i < objectSummaries.size(); i++) {
+      // Resolved once and shared by the inclusion check and file creation
+      val pcawgFile = resolvePCAWGFile(resolveObjectId(objectSummaries, i));
+      if (isIncluded(pcawgFile)) {
+        files.add(createFile(objectSummaries, i, pcawgFile));
+      }
+    }
 
-  private Optional<S3ObjectSummary> resolveObjectSummary(List<S3ObjectSummary> objectSummaries, String objectId) {
-    return objectSummaries.stream().filter(s -> s.getKey().equals(objectId)).findFirst();
+    return files.build();
   }
 
-  private boolean isIncluded(S3ObjectSummary objectSummary) {
-    val objectId = resolveObjectId(objectSummary);
-    val pcawgFile = resolvePCAWGFile(objectId);
+  private static boolean isIncluded(RepositoryFile pcawgFile) {
     if (pcawgFile == null) {
       return false;
     }
 
-    val fileName = pcawgFile.getFileCopies().get(0).getFileName();
+    val fileName = getPCAWGFileCopy(pcawgFile).getFileName();
     if (!isBamFile(fileName) && !isVcfFile(fileName)) {
       return false;
     }
@@ -85,9 +87,9 @@ public class PDCFileProcessor extends RepositoryFileProcessor {
     return true;
   }
 
-  private RepositoryFile createFile(S3ObjectSummary objectSummary, List<S3ObjectSummary> objectSummaries) {
-    val objectId = resolveObjectId(objectSummary);
-    val pcawgFileCopy = resolvePCAWGFileCopy(objectId);
+  private RepositoryFile createFile(S3ObjectSummaryStore objectSummaries, int i, RepositoryFile pcawgFile) {
+    val objectId = resolveObjectId(objectSummaries, i);
+    val pcawgFileCopy = getPCAWGFileCopy(pcawgFile);
 
     val objectFile = new RepositoryFile()
         .setId(context.ensureFileId(objectId))
@@ -95,33 +97,30 @@ public class PDCFileProcessor extends RepositoryFileProcessor {
 
     val fileCopy = objectFile.addFileCopy()
         .setFileName(pcawgFileCopy.getFileName())
-        .setFileSize(objectSummary.getSize())
+        .setFileSize(objectSummaries.getSize(i))
         .setFileFormat(pcawgFileCopy.getFileFormat())
         .setFileMd5sum(pcawgFileCopy.getFileMd5sum())
-        .setLastModified(objectSummary.getLastModified().getTime() / 1000L) // Seconds
+        .setLastModified(objectSummaries.getLastModified(i) / 1000L) // Seconds
         .setRepoFileId(objectId)
         .setRepoDataBundleId(pcawgFileCopy.getRepoDataBundleId())
-        .setRepoType(pdcRepository.getType().getId())
-        .setRepoOrg(pdcRepository.getSource().getId())
-        .setRepoName(pdcRepository.getName())
-        .setRepoCode(pdcRepository.getCode())
-        .setRepoCountry(pdcRepository.getCountry())
-        .setRepoBaseUrl(pdcRepository.getBaseUrl())
-        .setRepoDataPath(objectSummary.getBucketName() + pdcRepository.getType().getDataPath() + objectId);
+        .setRepository(pdcRepository)
+        .setRepoDataPath(objectSummaries.getBucketName(i) + pdcRepository.getType().getDataPath() + objectId);
 
     //
     // TODO: Add xml files when available.
     //
 
-    if (pcawgFileCopy.getIndexFile() != null) {
-      val pcawgIndexFile = pcawgFileCopy.getIndexFile();
-      val indexSummary = resolveObjectSummary(objectSummaries, pcawgIndexFile.getObjectId());
-      if (indexSummary.isPresent()) {
+    // Files without an index still carry a default index file with no object id
+    val pcawgIndexFile = pcawgFileCopy.getIndexFile();
+    if (pcawgIndexFile != null && pcawgIndexFile.getObjectId() != null) {
+      // The first summary of a key wins when several buckets hold the same object
+      val indexSummary = objectSummaries.indexOf(pcawgIndexFile.getObjectId());
+      if (indexSummary >= 0) {
         fileCopy.getIndexFile()
             .setId(context.ensureFileId(pcawgIndexFile.getObjectId()))
             .setObjectId(pcawgIndexFile.getObjectId())
             .setFileName(pcawgIndexFile.getFileName())
-            .setFileSize(indexSummary.get().getSize())
+            .setFileSize(objectSummaries.getSize(indexSummary))
             .setFileMd5sum(pcawgIndexFile.getFileMd5sum())
             .setFileFormat(pcawgIndexFile.getFileFormat());
       }
@@ -130,8 +129,12 @@ public class PDCFileProcessor extends RepositoryFileProcessor {
     return objectFile;
   }
 
-  private static String resolveObjectId(S3ObjectSummary objectSummary) {
-    return objectSummary.getKey();
+  private static String resolveObjectId(S3ObjectSummaryStore objectSummaries, int i) {
+    return objectSummaries.getKey(i);
+  }
+
+  private static FileCopy getPCAWGFileCopy(RepositoryFile pcawgFile) {
+    return pcawgFile.getFileCopies().get(0);
   }
 
   private static boolean isBamFile(String fileName) {
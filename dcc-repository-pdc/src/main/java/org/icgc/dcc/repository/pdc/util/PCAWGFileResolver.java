@@ -19,46 +19,146 @@ package org.icgc.dcc.repository.pdc.util;
 
 import static com.google.common.collect.Iterables.getFirst;
 import static lombok.AccessLevel.PRIVATE;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
 import static org.icgc.dcc.common.core.util.URLs.getUrl;
 import static org.icgc.dcc.repository.core.model.RepositorySource.PCAWG;
+import static org.icgc.dcc.repository.pcawg.core.PCAWGFileProcessor.DEFAULT_THREAD_COUNT;
 import static org.icgc.dcc.repository.pcawg.util.PCAWGArchives.PCAWG_ARCHIVE_BASE_URL;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.icgc.dcc.repository.core.RepositoryFileContext;
 import org.icgc.dcc.repository.core.RepositoryFileContextBuilder;
 import org.icgc.dcc.repository.core.model.RepositoryFile;
 import org.icgc.dcc.repository.pcawg.core.PCAWGFileProcessor;
+import org.icgc.dcc.repository.pcawg.model.PCAWGDonor;
 import org.icgc.dcc.repository.pcawg.reader.PCAWGDonorArchiveReader;
 
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 
+import lombok.Cleanup;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
+@RequiredArgsConstructor
 public class PCAWGFileResolver {
 
+  /**
+   * Constants.
+   */
+  public static final String SNAPSHOT_FILE_NAME = "pdc/pcawg-files.snapshot";
+  private static final String RELEASE_URL = PCAWG_ARCHIVE_BASE_URL + "/data_releases/latest/release_may2016.v1.1.jsonl";
+  private static final int TIMEOUT_MS = 30 * 1000;
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final File snapshotFile;
+
   /**
    * State.
    */
   @Getter(lazy = true, value = PRIVATE)
-  private final Multimap<String, RepositoryFile> files = resolveFiles();
+  private final PCAWGFileSnapshot snapshot = resolveSnapshot();
+
+  public PCAWGFileResolver() {
+    this(getSnapshotFile(RepositoryFileContextBuilder.DEFAULT_CACHE_DIR));
+  }
+
+  public static File getSnapshotFile(@NonNull File cacheDir) {
+    return new File(cacheDir, SNAPSHOT_FILE_NAME);
+  }
 
   public RepositoryFile resolve(@NonNull String objectId) {
-    val files = getFiles().get(objectId);
-    if (files.size() > 1) {
-      log.warn("More than one file found for object id {}: {}", objectId, files);
+    return getSnapshot().get(objectId);
+  }
+
+  /**
+   * The release is processed once and reused across runs for as long as its content, as identified by the source key,
+   * is unchanged.
+   */
+  @SneakyThrows
+  private PCAWGFileSnapshot resolveSnapshot() {
+    val sourceKey = readSourceKey();
+    val existing = openSnapshot();
+    if (existing != null && sourceKey != null && sourceKey.equals(existing.getSourceKey())) {
+      log.info("Opened PCAWG file snapshot '{}' of {} with {} files", snapshotFile, sourceKey,
+          formatCount(existing.size()));
+      return existing;
+    }
+
+    log.info("Writing PCAWG file snapshot of {} to '{}'...", sourceKey, snapshotFile);
+    PCAWGFileSnapshot.write(snapshotFile, sourceKey, resolveFirstFiles());
+
+    val snapshot = PCAWGFileSnapshot.open(snapshotFile);
+    log.info("Opened PCAWG file snapshot '{}' with {} files", snapshotFile, formatCount(snapshot.size()));
+
+    return snapshot;
+  }
+
+  private PCAWGFileSnapshot openSnapshot() {
+    if (!snapshotFile.exists()) {
+      return null;
+    }
+
+    try {
+      return PCAWGFileSnapshot.open(snapshotFile);
+    } catch (Exception e) {
+      log.warn("Could not open PCAWG file snapshot '{}', ignoring: {}", snapshotFile, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * @return the ETag of the release or, failing that, its last modified time and length. {@code null} if neither is
+   * available, in which case the snapshot is always rebuilt.
+   */
+  private static String readSourceKey() {
+    try {
+      val connection = (HttpURLConnection) getUrl(RELEASE_URL).openConnection();
+      connection.setRequestMethod("HEAD");
+      connection.setConnectTimeout(TIMEOUT_MS);
+      connection.setReadTimeout(TIMEOUT_MS);
+      try {
+        val etag = connection.getHeaderField("ETag");
+        if (etag != null) {
+          return etag;
+        }
+
+        val lastModified = connection.getLastModified();
+        return lastModified == 0 ? null : lastModified + ":" + connection.getContentLengthLong();
+      } finally {
+        connection.disconnect();
+      }
+    } catch (IOException e) {
+      log.warn("Could not read PCAWG release source key from '{}': {}", RELEASE_URL, e.getMessage());
+      return null;
+    }
+  }
+
+  private static Map<String, RepositoryFile> resolveFirstFiles() {
+    val files = resolveFiles();
+    for (val entry : files.asMap().entrySet()) {
+      if (entry.getValue().size() > 1) {
+        log.warn("More than one file found for object id {}: {}", entry.getKey(), entry.getValue());
+      }
     }
 
-    return getFirst(files, null);
+    return Maps.transformValues(files.asMap(), objectFiles -> getFirst(objectFiles, null));
   }
 
   @SneakyThrows
@@ -67,6 +167,7 @@ public class PCAWGFileResolver {
     val context = createFileContext();
 
     log.info("Resolving PCAWG files...");
+    @Cleanup
     val donors = readDonors();
     val files = readFiles(context, donors);
     log.info("Resolved PCAWG files in {}", watch);
@@ -74,14 +175,14 @@ public class PCAWGFileResolver {
     return Multimaps.index(files, RepositoryFile::getObjectId);
   }
 
-  public static Iterable<ObjectNode> readDonors() throws IOException {
+  public static Stream<PCAWGDonor> readDonors() throws IOException {
     // This URL is required as it includes a point in time where all the PDC files exist in GNOS repos to acquire all
     // metadata
-    val url = getUrl(PCAWG_ARCHIVE_BASE_URL + "/data_releases/latest/release_may2016.v1.1.jsonl");
+    val url = getUrl(RELEASE_URL);
     return new PCAWGDonorArchiveReader(url).readDonors();
   }
 
-  public static Iterable<RepositoryFile> readFiles(RepositoryFileContext context, Iterable<ObjectNode> donors) {
+  public static Iterable<RepositoryFile> readFiles(RepositoryFileContext context, Stream<PCAWGDonor> donors) {
     return new PCAWGFileProcessor(context) {
 
       @Override
@@ -89,7 +190,7 @@ public class PCAWGFileResolver {
         // No-op since this takes a while and is not needed here.
       };
 
-    }.processDonors(donors);
+    }.threadCount(DEFAULT_THREAD_COUNT).processDonors(donors);
   }
 
   private static RepositoryFileContext createFileContext() {
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.pdc.util;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static lombok.AccessLevel.PRIVATE;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.primitives.UnsignedBytes;
+
+import lombok.Cleanup;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Compact, memory-mapped snapshot of PCAWG file resolutions keyed by object id.
+ * <p>
+ * Only the fields used by the PDC import are kept: file name, format, md5 and data bundle id of the first file copy
+ * and its index file. Layout:
+ * 
+ * <pre>
+ * int magic, int version, int count
+ * string sourceKey        identifies the source content the snapshot was built from
+ * int offsets[count]      record positions in ascending object id (UTF-8 byte) order
+ * records[count]          9 strings each
+ * </pre>
+ * 
+ * Strings are encoded as a short byte length (-1 for null) followed by UTF-8 bytes. Lookups binary search the offsets
+ * and decode a single record, so nothing but the mapping is held on heap.
+ */
+@RequiredArgsConstructor(access = PRIVATE)
+public class PCAWGFileSnapshot {
+
+  /**
+   * Constants.
+   */
+  private static final int MAGIC = 0x50434657; // "PCFW"
+  private static final int VERSION = 2; // Increment when the layout or PCAWG file processing changes
+  private static final int HEADER_SIZE = 3 * Integer.BYTES;
+  private static final short NULL_LENGTH = -1;
+
+  /**
+   * State.
+   */
+  private final ByteBuffer buffer;
+  private final int count;
+  private final int offsetsStart;
+  @Getter
+  private final String sourceKey;
+
+  public static PCAWGFileSnapshot open(@NonNull File file) throws IOException {
+    @Cleanup
+    val channel = FileChannel.open(file.toPath(), READ);
+    val buffer = channel.map(READ_ONLY, 0, channel.size());
+
+    checkState(buffer.getInt(0) == MAGIC, "'%s' is not a PCAWG file snapshot", file);
+    checkState(buffer.getInt(Integer.BYTES) == VERSION, "'%s' has an unsupported snapshot version", file);
+
+    val header = buffer.duplicate();
+    header.position(HEADER_SIZE);
+    val sourceKey = readString(header);
+
+    return new PCAWGFileSnapshot(buffer, buffer.getInt(2 * Integer.BYTES), header.position(), sourceKey);
+  }
+
+  /**
+   * Writes the first file of each object id to {@code file}, replacing it atomically.
+   * 
+   * @param sourceKey identifies the source content, e.g. its ETag, or {@code null} if unknown
+   */
+  public static void write(@NonNull File file, String sourceKey, @NonNull Map<String, RepositoryFile> files)
+      throws IOException {
+    val sourceKeyBytes = new ByteArrayOutputStream();
+    writeString(new DataOutputStream(sourceKeyBytes), sourceKey);
+
+    val sorted = ImmutableSortedMap.<byte[], RepositoryFile> orderedBy(UnsignedBytes.lexicographicalComparator());
+    for (val entry : files.entrySet()) {
+      sorted.put(entry.getKey().getBytes(UTF_8), entry.getValue());
+    }
+
+    val records = new ByteArrayOutputStream();
+    val recordOutput = new DataOutputStream(records);
+    val offsets = new int[files.size()];
+
+    int i = 0;
+    val recordsStart = HEADER_SIZE + sourceKeyBytes.size() + files.size() * Integer.BYTES;
+    for (val entry : sorted.build().entrySet()) {
+      offsets[i++] = recordsStart + recordOutput.size();
+      writeRecord(recordOutput, entry.getKey(), entry.getValue());
+    }
+
+    Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+    val tempFile = new File(file.getPath() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(offsets.length);
+      sourceKeyBytes.writeTo(output);
+      for (val offset : offsets) {
+        output.writeInt(offset);
+      }
+
+      records.writeTo(output);
+    }
+
+    Files.move(tempFile.toPath(), file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  public int size() {
+    return count;
+  }
+
+  /**
+   * @return the resolved file, or {@code null} if {@code objectId} is not in the snapshot
+   */
+  public RepositoryFile get(@NonNull String objectId) {
+    val key = objectId.getBytes(UTF_8);
+
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      val middle = (low + high) >>> 1;
+      val position = buffer.getInt(offsetsStart + middle * Integer.BYTES);
+      val comparison = compareKey(position, key);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return readRecord(position);
+      }
+    }
+
+    return null;
+  }
+
+  private int compareKey(int position, byte[] key) {
+    val length = buffer.getShort(position);
+    val start = position + Short.BYTES;
+    for (int i = 0; i < length && i < key.length; i++) {
+      val comparison = UnsignedBytes.compare(buffer.get(start + i), key[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+
+    return length - key.length;
+  }
+
+  private RepositoryFile readRecord(int position) {
+    // Duplicate so that concurrent lookups do not share a position
+    val record = buffer.duplicate();
+    record.position(position);
+
+    val file = new RepositoryFile().setObjectId(readString(record));
+    val fileCopy = file.addFileCopy()
+        .setFileName(readString(record))
+        .setFileFormat(readString(record))
+        .setFileMd5sum(readString(record))
+        .setRepoDataBundleId(readString(record));
+    fileCopy.getIndexFile()
+        .setObjectId(readString(record))
+        .setFileName(readString(record))
+        .setFileMd5sum(readString(record))
+        .setFileFormat(readString(record));
+
+    return file;
+  }
+
+  private static void writeRecord(DataOutputStream output, byte[] objectId, RepositoryFile file) throws IOException {
+    val fileCopy = file.getFileCopies().get(0);
+    val indexFile = fileCopy.getIndexFile();
+
+    writeString(output, objectId);
+    writeString(output, fileCopy.getFileName());
+    writeString(output, fileCopy.getFileFormat());
+    writeString(output, fileCopy.getFileMd5sum());
+    writeString(output, fileCopy.getRepoDataBundleId());
+    writeString(output, indexFile == null ? null : indexFile.getObjectId());
+    writeString(output, indexFile == null ? null : indexFile.getFileName());
+    writeString(output, indexFile == null ? null : indexFile.getFileMd5sum());
+    writeString(output, indexFile == null ? null : indexFile.getFileFormat());
+  }
+
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    writeString(output, value == null ? null : value.getBytes(UTF_8));
+  }
+
+  private static void writeString(DataOutputStream output, byte[] value) throws IOException {
+    if (value == null) {
+      output.writeShort(NULL_LENGTH);
+      return;
+    }
+
+    checkState(value.length <= Short.MAX_VALUE, "Value is too long for a snapshot: %s bytes", value.length);
+    output.writeShort(value.length);
+    output.write(value);
+  }
+
+  private static String readString(ByteBuffer record) {
+    val length = record.getShort();
+    if (length == NULL_LENGTH) {
+      return null;
+    }
+
+    val bytes = new byte[length];
+    record.get(bytes);
+
+    return new String(bytes, UTF_8);
+  }
+
+}
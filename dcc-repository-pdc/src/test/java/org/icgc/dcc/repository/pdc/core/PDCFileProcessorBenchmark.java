@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.pdc.core;
+
+import static org.icgc.dcc.repository.core.model.Repositories.getPDCRepository;
+import static org.icgc.dcc.repository.core.util.RepositoryFileContexts.newLocalRepositoryFileContext;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.icgc.dcc.repository.cloud.s3.S3ObjectSummaryStore;
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.pdc.util.PCAWGFileResolver;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Ignore("For development only")
+public class PDCFileProcessorBenchmark {
+
+  /**
+   * Constants.
+   */
+  private static final int[] BUCKET_SIZES = { 10000, 50000, 200000 };
+  private static final int MAX_LINEAR_BUCKET_SIZE = 50000;
+
+  @Test
+  public void testThroughput() {
+    val context = newLocalRepositoryFileContext();
+
+    for (val bucketSize : BUCKET_SIZES) {
+      val pcawgFiles = Maps.<String, RepositoryFile> newHashMap();
+      val objectSummaries = createObjectSummaries(bucketSize, pcawgFiles);
+      val objectSummaryStore = S3ObjectSummaryStore.of(objectSummaries);
+      val processor = new PDCFileProcessor(context, getPDCRepository(), new PCAWGFileResolver() {
+
+        @Override
+        public RepositoryFile resolve(String objectId) {
+          return pcawgFiles.get(objectId);
+        }
+
+      });
+
+      val processWatch = Stopwatch.createStarted();
+      val files = processor.processFiles(objectSummaryStore);
+      processWatch.stop();
+      log.info("{} objects: processed {} files in {}", bucketSize, files.spliterator().getExactSizeIfKnown(),
+          processWatch);
+
+      // Index file lookups as previously done with a scan of the listing
+      if (bucketSize <= MAX_LINEAR_BUCKET_SIZE) {
+        int found = 0;
+        val linearWatch = Stopwatch.createStarted();
+        for (val objectSummary : objectSummaries) {
+          val key = objectSummary.getKey();
+          found += objectSummaries.stream().filter(s -> s.getKey().equals(key)).findFirst().isPresent() ? 1 : 0;
+        }
+        linearWatch.stop();
+
+        val indexedWatch = Stopwatch.createStarted();
+        for (val objectSummary : objectSummaries) {
+          found += objectSummaryStore.indexOf(objectSummary.getKey()) >= 0 ? 1 : 0;
+        }
+        indexedWatch.stop();
+
+        log.info("{} objects: {} lookups: linear {}, indexed {}", bucketSize, found, linearWatch, indexedWatch);
+      }
+    }
+  }
+
+  /**
+   * Creates a listing of BAM objects and their BAI objects, along with the PCAWG files that describe them.
+   */
+  private static List<S3ObjectSummary> createObjectSummaries(int bucketSize,
+      Map<String, RepositoryFile> pcawgFiles) {
+    val objectSummaries = Lists.<S3ObjectSummary> newArrayListWithCapacity(bucketSize);
+    for (int i = 0; i < bucketSize / 2; i++) {
+      val bamObjectId = UUID.randomUUID().toString();
+      val baiObjectId = UUID.randomUUID().toString();
+
+      val pcawgFile = new RepositoryFile().setObjectId(bamObjectId);
+      pcawgFile.addFileCopy().setFileName(bamObjectId + ".bam").getIndexFile()
+          .setObjectId(baiObjectId)
+          .setFileName(bamObjectId + ".bam.bai");
+      pcawgFiles.put(bamObjectId, pcawgFile);
+
+      objectSummaries.add(createObjectSummary(bamObjectId));
+      objectSummaries.add(createObjectSummary(baiObjectId));
+    }
+
+    return objectSummaries;
+  }
+
+  private static S3ObjectSummary createObjectSummary(String key) {
+    val objectSummary = new S3ObjectSummary();
+    objectSummary.setBucketName("pcawg-benchmark");
+    objectSummary.setKey(key);
+    objectSummary.setSize(1024L);
+    objectSummary.setLastModified(new Date());
+
+    return objectSummary;
+  }
+
+}
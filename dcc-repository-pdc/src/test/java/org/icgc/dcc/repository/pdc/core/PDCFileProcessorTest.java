@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.pdc.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.icgc.dcc.repository.core.model.Repositories.getPDCRepository;
+import static org.icgc.dcc.repository.core.util.RepositoryFileContexts.newLocalRepositoryFileContext;
+
+import org.icgc.dcc.repository.cloud.s3.S3ObjectSummaryStore;
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.pdc.util.PCAWGFileResolver;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import lombok.val;
+
+public class PDCFileProcessorTest {
+
+  @Test
+  public void testProcessFiles() {
+    val bam = new RepositoryFile().setObjectId("b6e3c6a6-5b5e-5d3c-9c59-d4c5a1f0b0a1");
+    bam.addFileCopy()
+        .setFileName("file.bam")
+        .getIndexFile()
+        .setObjectId("0a2b3c4d-5b5e-5d3c-9c59-d4c5a1f0b0a1")
+        .setFileName("file.bam.bai");
+
+    // No index file
+    val vcf = new RepositoryFile().setObjectId("3dbbb626-66da-43cd-8555-234f40b15a97");
+    vcf.addFileCopy()
+        .setFileName("file.vcf.gz");
+
+    val pcawgFiles = ImmutableMap.of(bam.getObjectId(), bam, vcf.getObjectId(), vcf);
+    val processor = new PDCFileProcessor(newLocalRepositoryFileContext(), getPDCRepository(), new PCAWGFileResolver() {
+
+      @Override
+      public RepositoryFile resolve(String objectId) {
+        return pcawgFiles.get(objectId);
+      }
+
+    });
+
+    val objectSummaries = new S3ObjectSummaryStore();
+    objectSummaries.add("pcawg-test", bam.getObjectId(), 1000L, 1000L);
+    objectSummaries.add("pcawg-test", "0a2b3c4d-5b5e-5d3c-9c59-d4c5a1f0b0a1", 10L, 1000L);
+    objectSummaries.add("pcawg-test", vcf.getObjectId(), 100L, 1000L);
+
+    val files = ImmutableList.copyOf(processor.processFiles(objectSummaries));
+
+    assertThat(files).hasSize(2);
+    val bamFile = files.get(0).getFileCopies().get(0);
+    assertThat(bamFile.getFileSize()).isEqualTo(1000L);
+    assertThat(bamFile.getIndexFile().getObjectId()).isEqualTo("0a2b3c4d-5b5e-5d3c-9c59-d4c5a1f0b0a1");
+    assertThat(bamFile.getIndexFile().getFileSize()).isEqualTo(10L);
+
+    val vcfFile = files.get(1).getFileCopies().get(0);
+    assertThat(vcfFile.getFileName()).isEqualTo("file.vcf.gz");
+    assertThat(vcfFile.getIndexFile().getObjectId()).isNull();
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.pdc.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.icgc.dcc.repository.core.model.RepositoryFile;
+import org.icgc.dcc.repository.core.model.RepositoryFile.FileFormat;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableMap;
+
+import lombok.val;
+
+public class PCAWGFileSnapshotTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testWriteAndOpen() throws Exception {
+    val bam = new RepositoryFile().setObjectId("b6e3c6a6-5b5e-5d3c-9c59-d4c5a1f0b0a1");
+    bam.addFileCopy()
+        .setFileName("file.bam")
+        .setFileFormat(FileFormat.BAM)
+        .setFileMd5sum("f78fcd77f03facb98357d576d31c06c1")
+        .setRepoDataBundleId("fc9a93a4-a823-46af-a78c-2335ca77e9b0")
+        .getIndexFile()
+        .setObjectId("0a2b3c4d-5b5e-5d3c-9c59-d4c5a1f0b0a1")
+        .setFileName("file.bam.bai")
+        .setFileMd5sum(null)
+        .setFileFormat(FileFormat.BAI);
+
+    val vcf = new RepositoryFile().setObjectId("3dbbb626-66da-43cd-8555-234f40b15a97");
+    vcf.addFileCopy()
+        .setFileName("file.vcf.gz")
+        .setFileFormat(FileFormat.VCF);
+
+    val file = tmp.newFile("pcawg-files.snapshot");
+    PCAWGFileSnapshot.write(file, "\"etag\"", ImmutableMap.of(bam.getObjectId(), bam, vcf.getObjectId(), vcf));
+    val snapshot = PCAWGFileSnapshot.open(file);
+
+    assertThat(snapshot.getSourceKey()).isEqualTo("\"etag\"");
+    assertThat(snapshot.size()).isEqualTo(2);
+    assertThat(snapshot.get("missing")).isNull();
+    assertThat(snapshot.get(bam.getObjectId())).isEqualTo(bam);
+    assertThat(snapshot.get(vcf.getObjectId())).isEqualTo(vcf);
+  }
+
+  @Test
+  public void testWriteAndOpenWithoutSourceKey() throws Exception {
+    val vcf = new RepositoryFile().setObjectId("3dbbb626-66da-43cd-8555-234f40b15a97");
+    vcf.addFileCopy()
+        .setFileName("file.vcf.gz")
+        .setFileFormat(FileFormat.VCF);
+
+    val file = tmp.newFile("pcawg-files.snapshot");
+    PCAWGFileSnapshot.write(file, null, ImmutableMap.of(vcf.getObjectId(), vcf));
+    val snapshot = PCAWGFileSnapshot.open(file);
+
+    assertThat(snapshot.getSourceKey()).isNull();
+    assertThat(snapshot.get(vcf.getObjectId())).isEqualTo(vcf);
+  }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.tcga.core;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveClinicalFile;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.Value;
+import lombok.val;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persisted clinical files of previously crawled TCGA archives, keyed by archive name and valid for as long as the
+ * archive's {@code dateAdded} in the archive list is unchanged.
+ * <p>
+ * The whole cache is discarded when it was written by a different {@link #VERSION}, which must be bumped whenever the
+ * way clinical files are crawled or stored changes.
+ */
+@Slf4j
+public class TCGAArchiveCache {
+
+  /**
+   * Constants.
+   */
+  public static final String CACHE_FILE_NAME = "tcga/archive-cache.json";
+  public static final int VERSION = 1;
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final File cacheFile;
+
+  /**
+   * State.
+   */
+  private final Map<String, Archive> archives;
+
+  public TCGAArchiveCache(@NonNull File cacheFile) {
+    this.cacheFile = cacheFile;
+    this.archives = read(cacheFile);
+  }
+
+  /**
+   * Returns the cached clinical files of the archive or {@code null} if it is new or has changed since.
+   */
+  public List<TCGAArchiveClinicalFile> get(@NonNull String archiveName, @NonNull String dateAdded) {
+    val archive = archives.get(archiveName);
+    return archive != null && archive.getDateAdded().equals(dateAdded) ? archive.getClinicalFiles() : null;
+  }
+
+  public void put(@NonNull String archiveName, @NonNull String dateAdded,
+      @NonNull List<TCGAArchiveClinicalFile> clinicalFiles) {
+    archives.put(archiveName, new Archive(dateAdded, ImmutableList.copyOf(clinicalFiles)));
+  }
+
+  /**
+   * Drops archives that are no longer listed so the cache does not grow without bound.
+   */
+  public void retain(@NonNull Set<String> archiveNames) {
+    archives.keySet().retainAll(archiveNames);
+  }
+
+  @SneakyThrows
+  public void write() {
+    log.info("Writing {} archives to cache '{}'...", formatCount(archives.size()), cacheFile);
+    val root = MAPPER.createObjectNode().put("version", VERSION);
+    val archivesNode = root.putObject("archives");
+    archives.forEach((archiveName, archive) -> {
+      val node = archivesNode.putObject(archiveName).put("dateAdded", archive.getDateAdded());
+      val files = node.putArray("clinicalFiles");
+      for (val clinicalFile : archive.getClinicalFiles()) {
+        files.addObject()
+            .put("donorId", clinicalFile.getDonorId())
+            .put("fileName", clinicalFile.getFileName())
+            .put("lastModified", clinicalFile.getLastModified())
+            .put("fileSize", clinicalFile.getFileSize())
+            .put("fileMd5", clinicalFile.getFileMd5())
+            .put("url", clinicalFile.getUrl());
+      }
+    });
+
+    // Write then move so that an interrupted write never leaves a partial cache behind
+    cacheFile.getAbsoluteFile().getParentFile().mkdirs();
+    val tempFile = new File(cacheFile.getPath() + ".tmp");
+    MAPPER.writeValue(tempFile, root);
+    Files.move(tempFile.toPath(), cacheFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+
+  private static Map<String, Archive> read(File cacheFile) {
+    val archives = Maps.<String, Archive> newHashMap();
+    if (!cacheFile.exists()) {
+      return archives;
+    }
+
+    try {
+      val root = (ObjectNode) MAPPER.readTree(cacheFile);
+      val version = root.path("version").asInt();
+      if (version != VERSION) {
+        log.info("Ignoring archive cache '{}' of version {} (expected {})", cacheFile, version, VERSION);
+        return archives;
+      }
+
+      val fields = root.get("archives").fields();
+      while (fields.hasNext()) {
+        val field = fields.next();
+        archives.put(field.getKey(), readArchive(field.getValue()));
+      }
+
+      log.info("Read {} archives from cache '{}'", formatCount(archives.size()), cacheFile);
+      return archives;
+    } catch (Exception e) {
+      log.warn("Could not read archive cache '{}', ignoring: {}", cacheFile, e.getMessage());
+      return Maps.newHashMap();
+    }
+  }
+
+  private static Archive readArchive(JsonNode node) {
+    val clinicalFiles = ImmutableList.<TCGAArchiveClinicalFile> builder();
+    for (val file : node.path("clinicalFiles")) {
+      clinicalFiles.add(new TCGAArchiveClinicalFile(
+          file.get("donorId").textValue(),
+          file.get("fileName").textValue(),
+          file.get("lastModified").longValue(),
+          file.get("fileSize").longValue(),
+          file.get("fileMd5").textValue(),
+          file.get("url").textValue()));
+    }
+
+    return new Archive(node.get("dateAdded").textValue(), clinicalFiles.build());
+  }
+
+  @Value
+  private static class Archive {
+
+    String dateAdded;
+    List<TCGAArchiveClinicalFile> clinicalFiles;
+
+  }
+
+}
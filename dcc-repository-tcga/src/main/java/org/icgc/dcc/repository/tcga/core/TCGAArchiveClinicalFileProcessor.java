@@ -48,10 +48,22 @@ public class TCGAArchiveClinicalFileProcessor {
   public List<TCGAArchiveClinicalFile> process(@NonNull String archiveUrl) {
     log.info("Processing archive url '{}'...", archiveUrl);
     val archiveFolderUrl = resolveArchiveFolderUrl(archiveUrl);
-    val md5s = resolveArchiveFileMD5Sums(archiveFolderUrl);
+    val manifestEntries = TCGAArchiveManifestReader.readEntries(archiveFolderUrl);
+    val pageEntries = TCGAArchivePageReader.readEntries(archiveFolderUrl);
+
+    return process(archiveFolderUrl, pageEntries, manifestEntries);
+  }
+
+  /**
+   * Joins the already read page and manifest entries of an archive folder.
+   */
+  public List<TCGAArchiveClinicalFile> process(@NonNull String archiveFolderUrl,
+      @NonNull Iterable<TCGAArchivePageEntry> pageEntries,
+      @NonNull Iterable<TCGAArchiveManifestEntry> manifestEntries) {
+    val md5s = resolveArchiveFileMD5Sums(manifestEntries);
 
     val clinicalFiles = ImmutableList.<TCGAArchiveClinicalFile> builder();
-    for (val entry : TCGAArchivePageReader.readEntries(archiveFolderUrl)) {
+    for (val entry : pageEntries) {
 
       val clinical = matchClinicalFileName(entry.getFileName());
       if (!clinical.isPresent()) {
@@ -72,20 +84,23 @@ public class TCGAArchiveClinicalFileProcessor {
     return clinicalFiles.build();
   }
 
+  public static boolean hasClinicalFiles(@NonNull Iterable<TCGAArchivePageEntry> pageEntries) {
+    return stream(pageEntries).anyMatch(entry -> matchClinicalFileName(entry.getFileName()).isPresent());
+  }
+
+  public static String resolveArchiveFolderUrl(@NonNull String archiveUrl) {
+    return archiveUrl.replaceFirst(".tar.gz$", "");
+  }
+
   private static long resolveLastModified(TCGAArchivePageEntry entry) {
     return entry.getLastModified().getEpochSecond();
   }
 
-  private static Map<String, String> resolveArchiveFileMD5Sums(String archiveFolderUrl) {
-    val entries = TCGAArchiveManifestReader.readEntries(archiveFolderUrl);
+  private static Map<String, String> resolveArchiveFileMD5Sums(Iterable<TCGAArchiveManifestEntry> entries) {
     val md5ByFileName = toMap(TCGAArchiveManifestEntry::getFileName, TCGAArchiveManifestEntry::getMd5);
     return stream(entries).collect(md5ByFileName);
   }
 
-  private static String resolveArchiveFolderUrl(String archiveUrl) {
-    return archiveUrl.replaceFirst(".tar.gz$", "");
-  }
-
   private static Optional<String> matchClinicalFileName(String fileName) {
     val matcher = CLINICAL_FILENAME_PATTERN.matcher(fileName);
     return Optional.ofNullable(matcher.matches() ? matcher.group(1) : null);
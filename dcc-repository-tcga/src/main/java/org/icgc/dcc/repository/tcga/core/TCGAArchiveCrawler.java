@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.tcga.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Stopwatch.createStarted;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.icgc.dcc.common.core.util.Formats.formatCount;
+import static org.icgc.dcc.repository.tcga.core.TCGAArchiveClinicalFileProcessor.hasClinicalFiles;
+import static org.icgc.dcc.repository.tcga.core.TCGAArchiveClinicalFileProcessor.resolveArchiveFolderUrl;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveClinicalFile;
+import org.icgc.dcc.repository.tcga.reader.TCGAArchiveManifestReader;
+import org.icgc.dcc.repository.tcga.reader.TCGAArchivePageReader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.SneakyThrows;
+import lombok.val;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fetches the directory pages and manifests of TCGA archives concurrently and turns them into clinical files.
+ * <p>
+ * Archives are crawled on a bounded pool. Requests to the same host are further limited by {@code hostConcurrency} so
+ * that a large pool does not overwhelm a single server, and requests that fail with an {@link IOException} are
+ * retried with a linear backoff. Per request type latencies are logged when the crawl finishes.
+ */
+@Slf4j
+public class TCGAArchiveCrawler {
+
+  /**
+   * Constants.
+   */
+  public static final int DEFAULT_THREAD_COUNT = 16;
+  public static final int DEFAULT_HOST_CONCURRENCY = 8;
+  public static final int DEFAULT_MAX_ATTEMPTS = 3;
+  public static final long DEFAULT_RETRY_DELAY_MS = 1000;
+
+  /**
+   * Configuration.
+   */
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int threadCount = DEFAULT_THREAD_COUNT;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int hostConcurrency = DEFAULT_HOST_CONCURRENCY;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+  @Setter
+  @Accessors(chain = true, fluent = true)
+  private long retryDelayMs = DEFAULT_RETRY_DELAY_MS;
+
+  /**
+   * State.
+   */
+  private final ConcurrentMap<String, Semaphore> hostPermits = Maps.newConcurrentMap();
+  private final ConcurrentMap<String, Latency> latencies = Maps.newConcurrentMap();
+
+  /**
+   * Crawls {@code archiveUrls}, returning the clinical files of each archive keyed by its url in iteration order.
+   */
+  @SneakyThrows
+  public Map<String, List<TCGAArchiveClinicalFile>> crawl(@NonNull Iterable<String> archiveUrls) {
+    checkArgument(threadCount > 0, "Thread count must be positive: %s", threadCount);
+    checkArgument(hostConcurrency > 0, "Host concurrency must be positive: %s", hostConcurrency);
+    checkArgument(maxAttempts > 0, "Max attempts must be positive: %s", maxAttempts);
+    val watch = createStarted();
+
+    val executor = Executors.newFixedThreadPool(threadCount,
+        new ThreadFactoryBuilder().setNameFormat("tcga-crawl-%d").setDaemon(true).build());
+    try {
+      val futures = Lists.<Future<List<TCGAArchiveClinicalFile>>> newArrayList();
+      val urls = Lists.<String> newArrayList();
+      for (val archiveUrl : archiveUrls) {
+        futures.add(executor.submit(() -> crawlArchive(archiveUrl)));
+        urls.add(archiveUrl);
+      }
+
+      log.info("Crawling {} archives on {} threads...", formatCount(urls), threadCount);
+      val clinicalFiles = Maps.<String, List<TCGAArchiveClinicalFile>> newLinkedHashMap();
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          clinicalFiles.put(urls.get(i), futures.get(i).get());
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Could not crawl archive " + urls.get(i), e.getCause());
+        }
+      }
+
+      log.info("Finished crawling {} archives in {}", formatCount(urls), watch);
+      logLatencies();
+
+      return clinicalFiles;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private List<TCGAArchiveClinicalFile> crawlArchive(String archiveUrl) throws Exception {
+    log.info("Crawling archive url '{}'...", archiveUrl);
+    val archiveFolderUrl = resolveArchiveFolderUrl(archiveUrl);
+    val pageEntries = fetch("page", archiveFolderUrl, () -> TCGAArchivePageReader.readEntries(archiveFolderUrl));
+
+    // Most archives carry no clinical files so their manifest is not worth a request
+    if (!hasClinicalFiles(pageEntries)) {
+      return ImmutableList.of();
+    }
+
+    val manifestEntries = fetch("manifest", archiveFolderUrl,
+        () -> TCGAArchiveManifestReader.readEntries(archiveFolderUrl));
+    return new TCGAArchiveClinicalFileProcessor().process(archiveFolderUrl, pageEntries, manifestEntries);
+  }
+
+  private <T> T fetch(String type, String url, Callable<T> request) throws Exception {
+    val permits = hostPermits.computeIfAbsent(new URL(url).getHost(), host -> new Semaphore(hostConcurrency));
+    val latency = latencies.computeIfAbsent(type, t -> new Latency());
+
+    for (int attempt = 1;; attempt++) {
+      permits.acquire();
+      val start = System.nanoTime();
+      try {
+        val result = request.call();
+        latency.record(System.nanoTime() - start);
+
+        return result;
+      } catch (Exception e) {
+        latency.record(System.nanoTime() - start);
+        if (!(e instanceof IOException) || attempt >= maxAttempts) {
+          latency.failures.increment();
+          throw e;
+        }
+
+        log.warn("Attempt {} of {} to fetch {} '{}' failed, retrying: {}", attempt, maxAttempts, type, url,
+            e.getMessage());
+        latency.retries.increment();
+      } finally {
+        permits.release();
+      }
+
+      // Back off outside of the permit so other archives on the host proceed
+      MILLISECONDS.sleep(retryDelayMs * attempt);
+    }
+  }
+
+  private void logLatencies() {
+    latencies.forEach((type, latency) -> {
+      val count = latency.count.sum();
+      log.info("Fetched {} {} requests: mean {} ms, max {} ms, {} retries, {} failures", count, type,
+          count == 0 ? 0 : NANOSECONDS.toMillis(latency.totalNanos.sum() / count),
+          NANOSECONDS.toMillis(latency.maxNanos.get()),
+          latency.retries.sum(), latency.failures.sum());
+    });
+  }
+
+  private static class Latency {
+
+    final LongAdder count = new LongAdder();
+    final LongAdder totalNanos = new LongAdder();
+    final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    final LongAdder retries = new LongAdder();
+    final LongAdder failures = new LongAdder();
+
+    void record(long nanos) {
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+    }
+
+  }
+
+}
@@ -24,6 +24,10 @@ import static org.icgc.dcc.common.core.util.stream.Streams.stream;
 import static org.icgc.dcc.repository.core.model.Repositories.getTCGARepository;
 import static org.icgc.dcc.repository.core.model.RepositoryProjects.getProjectByDiseaseCode;
 
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.icgc.dcc.repository.core.RepositoryFileContext;
@@ -36,9 +40,11 @@ import org.icgc.dcc.repository.core.model.RepositoryFile.FileFormat;
 import org.icgc.dcc.repository.core.model.RepositoryFile.OtherIdentifiers;
 import org.icgc.dcc.repository.core.model.RepositoryFile.Program;
 import org.icgc.dcc.repository.tcga.model.TCGAArchiveClinicalFile;
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveListEntry;
 import org.icgc.dcc.repository.tcga.reader.TCGAArchiveListReader;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 
 import lombok.NonNull;
 import lombok.val;
@@ -58,8 +64,19 @@ public class TCGAFileProcessor extends RepositoryFileProcessor {
   @NonNull
   private final Repository tcgaRepository = getTCGARepository();
 
+  /**
+   * Configuration.
+   */
+  @NonNull
+  private final File archiveCacheFile;
+
   public TCGAFileProcessor(RepositoryFileContext context) {
+    this(context, new File(context.getCacheDir(), TCGAArchiveCache.CACHE_FILE_NAME));
+  }
+
+  public TCGAFileProcessor(RepositoryFileContext context, @NonNull File archiveCacheFile) {
     super(context);
+    this.archiveCacheFile = archiveCacheFile;
   }
 
   public Iterable<RepositoryFile> processClinicalFiles() {
@@ -87,7 +104,7 @@ public class TCGAFileProcessor extends RepositoryFileProcessor {
     val entries = TCGAArchiveListReader.readEntries();
     log.info("Read {} archive list entries", formatCount(entries));
 
-    val clinicalFiles = ImmutableList.<RepositoryFile> builder();
+    val archiveProjectCodes = Maps.<TCGAArchiveListEntry, String> newLinkedHashMap();
     for (val entry : entries) {
       val matcher = CLINICAL_ARCHIVE_NAME_PATTERN.matcher(entry.getArchiveName());
       val clinical = matcher.matches();
@@ -102,17 +119,53 @@ public class TCGAFileProcessor extends RepositoryFileProcessor {
         continue;
       }
 
-      val archiveClinicalFiles = processArchive(project.get().getProjectCode(), entry.getArchiveUrl());
-
-      clinicalFiles.addAll(archiveClinicalFiles);
+      archiveProjectCodes.put(entry, project.get().getProjectCode());
     }
 
+    val archiveClinicalFiles = readArchiveClinicalFiles(archiveProjectCodes.keySet());
+
+    val clinicalFiles = ImmutableList.<RepositoryFile> builder();
+    archiveProjectCodes.forEach((entry, projectCode) -> {
+      clinicalFiles.addAll(processArchive(projectCode, archiveClinicalFiles.get(entry.getArchiveName())));
+    });
+
     return clinicalFiles.build();
   }
 
-  private Iterable<RepositoryFile> processArchive(String projectCode, String archiveUrl) {
-    val processor = new TCGAArchiveClinicalFileProcessor();
-    val archiveClinicalFiles = processor.process(archiveUrl);
+  private Map<String, List<TCGAArchiveClinicalFile>> readArchiveClinicalFiles(Set<TCGAArchiveListEntry> entries) {
+    val cache = new TCGAArchiveCache(archiveCacheFile);
+
+    // Archives are immutable once added, so only new or re-added archives need to be fetched
+    val archiveClinicalFiles = Maps.<String, List<TCGAArchiveClinicalFile>> newHashMap();
+    val changedEntries = Maps.<String, TCGAArchiveListEntry> newLinkedHashMap();
+    for (val entry : entries) {
+      val cached = cache.get(entry.getArchiveName(), entry.getDateAdded());
+      if (cached == null) {
+        changedEntries.put(entry.getArchiveUrl(), entry);
+      } else {
+        archiveClinicalFiles.put(entry.getArchiveName(), cached);
+      }
+    }
+    log.info("Found {} cached and {} new or changed archives", formatCount(archiveClinicalFiles.size()),
+        formatCount(changedEntries.size()));
+
+    // Fetching dominates so archives are crawled concurrently
+    if (!changedEntries.isEmpty()) {
+      new TCGAArchiveCrawler().crawl(changedEntries.keySet()).forEach((archiveUrl, clinicalFiles) -> {
+        val entry = changedEntries.get(archiveUrl);
+        cache.put(entry.getArchiveName(), entry.getDateAdded(), clinicalFiles);
+        archiveClinicalFiles.put(entry.getArchiveName(), clinicalFiles);
+      });
+    }
+
+    cache.retain(archiveClinicalFiles.keySet());
+    cache.write();
+
+    return archiveClinicalFiles;
+  }
+
+  private Iterable<RepositoryFile> processArchive(String projectCode,
+      List<TCGAArchiveClinicalFile> archiveClinicalFiles) {
     log.info("Processing {} archive clinical files", formatCount(archiveClinicalFiles));
 
     val clinicalFiles = ImmutableList.<RepositoryFile> builder();
@@ -167,12 +220,7 @@ public class TCGAFileProcessor extends RepositoryFileProcessor {
         .setIndexFile(null) // N/A
         .setRepoDataBundleId(null) // N/A
         .setRepoFileId(null) // N/A
-        .setRepoType(tcgaRepository.getType().getId())
-        .setRepoOrg(tcgaRepository.getSource().getId())
-        .setRepoName(tcgaRepository.getName())
-        .setRepoCode(tcgaRepository.getCode())
-        .setRepoCountry(tcgaRepository.getCountry())
-        .setRepoBaseUrl(tcgaRepository.getBaseUrl())
+        .setRepository(tcgaRepository)
         .setRepoDataPath(dataPath)
         .setRepoMetadataPath(tcgaRepository.getType().getMetadataPath());
 
@@ -18,29 +18,46 @@
 package org.icgc.dcc.repository.tcga.reader;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.icgc.dcc.common.core.util.URLs.getUrl;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.regex.Pattern;
 
 import org.icgc.dcc.repository.tcga.model.TCGAArchivePageEntry;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Node;
-import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Parser;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Longs;
 
+import lombok.Cleanup;
+import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.val;
 
+/**
+ * Reads the entries of an Apache directory listing page.
+ * <p>
+ * The page is read line by line rather than parsed into a DOM. Within the {@code <pre>} block, each link sets the
+ * current file name and each run of text between tags is matched against the last modified and size columns, exactly
+ * as the text nodes of the block would be.
+ */
 public class TCGAArchivePageReader {
 
+  /**
+   * Constants.
+   */
+  private static final int TIMEOUT_MS = 3000; // As previously applied by Jsoup
+
   /**
    * Regexes.
    */
@@ -48,11 +65,13 @@ public class TCGAArchivePageReader {
   private static String SIZE_COLUMN_REGEX = "\\d+\\w+";
   private static String COLUMNS_REGEX =
       "\\s*(" + LAST_MODIFIED_COLUMN_REGEX + "|-)\\s*" + "(" + SIZE_COLUMN_REGEX + "|-)\\s*$";
+  private static String HREF_REGEX = "(?i)\\shref\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)'|([^\\s>]+))";
 
   /**
    * Patterns.
    */
   private static Pattern COLUMNS_PATTERN = Pattern.compile(COLUMNS_REGEX);
+  private static Pattern HREF_PATTERN = Pattern.compile(HREF_REGEX);
 
   /**
    * Parsers.
@@ -63,32 +82,29 @@ public class TCGAArchivePageReader {
 
   @SneakyThrows
   public static Iterable<TCGAArchivePageEntry> readEntries(String archiveUrl) {
-    val entries = ImmutableList.<TCGAArchivePageEntry> builder();
-
-    String fileName = null;
-    Columns columns = null;
-    for (val node : getNodes(archiveUrl)) {
-      if (isText(node)) {
-        val text = ((TextNode) node).text();
-        columns = parseColumns(text);
-
-        if (!columns.isEmpty()) {
-          val entry = new TCGAArchivePageEntry(fileName, columns.getSize(), columns.getLastModified());
-          entries.add(entry);
-        }
-      } else if (isLink(node)) {
-        fileName = node.attributes().get("href");
-      }
+    @Cleanup
+    val reader = new InputStreamReader(openInputStream(archiveUrl), UTF_8);
+    return readEntries(reader);
+  }
+
+  static Iterable<TCGAArchivePageEntry> readEntries(@NonNull Reader reader) throws IOException {
+    val parser = new PageParser();
+    val lines = new BufferedReader(reader);
+
+    String line;
+    while ((line = lines.readLine()) != null && !parser.isDone()) {
+      parser.parseLine(line);
     }
 
-    return entries.build();
+    return parser.getEntries();
   }
 
-  private static List<Node> getNodes(String archiveUrl) throws IOException {
-    val document = Jsoup.connect(archiveUrl).get();
-    val pre = document.select("pre").first();
+  private static InputStream openInputStream(String archiveUrl) throws IOException {
+    val connection = getUrl(archiveUrl).openConnection();
+    connection.setConnectTimeout(TIMEOUT_MS);
+    connection.setReadTimeout(TIMEOUT_MS);
 
-    return pre.childNodes();
+    return connection.getInputStream();
   }
 
   private static Columns parseColumns(String text) {
@@ -122,12 +138,133 @@ public class TCGAArchivePageReader {
     return ZonedDateTime.parse(text, DATE_FORMATTER).toInstant();
   }
 
-  private static boolean isLink(Node node) {
-    return node.nodeName().equals("a");
+  private static String parseHref(String tag) {
+    val matcher = HREF_PATTERN.matcher(tag);
+    if (!matcher.find()) {
+      return null;
+    }
+
+    // Double quoted, single quoted or unquoted
+    for (int group = 1; group <= 3; group++) {
+      if (matcher.group(group) != null) {
+        return Parser.unescapeEntities(matcher.group(group), true);
+      }
+    }
+
+    return null;
+  }
+
+  private static boolean isLink(String tag) {
+    return tag.length() > 2 && Character.toLowerCase(tag.charAt(1)) == 'a' && isTagNameEnd(tag.charAt(2));
   }
 
-  private static boolean isText(Node node) {
-    return node instanceof TextNode;
+  private static boolean isTag(String tag, String name) {
+    return tag.regionMatches(true, 0, name, 0, name.length()) && isTagNameEnd(tag.charAt(name.length()));
+  }
+
+  private static boolean isTagNameEnd(char c) {
+    return Character.isWhitespace(c) || c == '>' || c == '/';
+  }
+
+  /**
+   * Single pass state machine over the lines of the page. Text runs and tags may span lines.
+   */
+  private static class PageParser {
+
+    /**
+     * State.
+     */
+    final ImmutableList.Builder<TCGAArchivePageEntry> entries = ImmutableList.builder();
+    final StringBuilder text = new StringBuilder();
+    final StringBuilder tag = new StringBuilder();
+    boolean inTag;
+    boolean inPre;
+    boolean inAnchor;
+    boolean done;
+    String fileName;
+
+    void parseLine(String line) {
+      for (int i = 0; i < line.length(); i++) {
+        val c = line.charAt(i);
+        if (inTag) {
+          tag.append(c);
+          if (c == '>') {
+            inTag = false;
+            onTag(tag.toString());
+            tag.setLength(0);
+          }
+        } else if (c == '<') {
+          inTag = true;
+          tag.append(c);
+        } else if (isInText()) {
+          appendText(c);
+        }
+      }
+
+      if (inTag) {
+        tag.append('\n');
+      } else if (isInText()) {
+        appendText('\n');
+      }
+    }
+
+    void appendText(char c) {
+      // Collapse whitespace runs as text node text does
+      if (!Character.isWhitespace(c)) {
+        text.append(c);
+      } else if (text.length() == 0 || text.charAt(text.length() - 1) != ' ') {
+        text.append(' ');
+      }
+    }
+
+    void onTag(String tag) {
+      if (!inPre) {
+        inPre = isTag(tag, "<pre");
+        return;
+      }
+
+      // Tags end the current text node
+      onText();
+
+      if (isTag(tag, "</pre")) {
+        inPre = false;
+        done = true;
+      } else if (isLink(tag)) {
+        inAnchor = true;
+        fileName = parseHref(tag);
+      } else if (isTag(tag, "</a")) {
+        inAnchor = false;
+      }
+    }
+
+    boolean isInText() {
+      // Only the direct text of the block, not that of its links
+      return inPre && !inAnchor;
+    }
+
+    void onText() {
+      if (text.length() == 0) {
+        return;
+      }
+
+      val columns = parseColumns(Parser.unescapeEntities(text.toString(), false));
+      text.setLength(0);
+
+      if (!columns.isEmpty()) {
+        entries.add(new TCGAArchivePageEntry(fileName, columns.getSize(), columns.getLastModified()));
+      }
+    }
+
+    boolean isDone() {
+      return done;
+    }
+
+    Iterable<TCGAArchivePageEntry> getEntries() {
+      // Unterminated block
+      onText();
+      return entries.build();
+    }
+
   }
 
   @Value
@@ -142,4 +279,4 @@ public class TCGAArchivePageReader {
 
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.tcga.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.icgc.dcc.repository.tcga.model.TCGAArchiveClinicalFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+
+import lombok.val;
+
+public class TCGAArchiveCacheTest {
+
+  /**
+   * State.
+   */
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void testReadWrite() throws Exception {
+    val cacheFile = tmp.newFile("archive-cache.json");
+    cacheFile.delete();
+
+    val clinicalFile = new TCGAArchiveClinicalFile("TCGA-AA-0001", "org_clinical.TCGA-AA-0001.xml", 1404915480L,
+        12288L, null, "https://tcga-data.nci.nih.gov/archive/org_clinical.TCGA-AA-0001.xml");
+
+    val cache = new TCGAArchiveCache(cacheFile);
+    assertThat(cache.get("archive.1", "07/09/2014")).isNull();
+
+    cache.put("archive.1", "07/09/2014", ImmutableList.of(clinicalFile));
+    cache.put("archive.2", "07/09/2014", ImmutableList.of());
+    cache.retain(ImmutableSet.of("archive.1"));
+    cache.write();
+
+    val reread = new TCGAArchiveCache(cacheFile);
+    assertThat(reread.get("archive.1", "07/09/2014")).containsExactly(clinicalFile);
+    assertThat(reread.get("archive.1", "08/01/2014")).isNull();
+    assertThat(reread.get("archive.2", "07/09/2014")).isNull();
+  }
+
+  @Test
+  public void testReadOtherVersion() throws Exception {
+    val cacheFile = tmp.newFile("archive-cache.json");
+    Files.write(
+        "{\"version\": 0, \"archives\": {\"archive.1\": {\"dateAdded\": \"07/09/2014\", \"clinicalFiles\": []}}}",
+        cacheFile, UTF_8);
+
+    val cache = new TCGAArchiveCache(cacheFile);
+    assertThat(cache.get("archive.1", "07/09/2014")).isNull();
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016 The Ontario Institute for Cancer Research. All rights reserved.
+ *                                                                                                               
+ * This program and the accompanying materials are made available under the terms of the GNU Public License v3.0.
+ * You should have received a copy of the GNU General Public License along with                                  
+ * this program. If not, see <http://www.gnu.org/licenses/>.                                                     
+ *                                                                                                               
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY                           
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES                          
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT                           
+ * SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,                                
+ * INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED                          
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;                               
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER                              
+ * IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN                         
+ * ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.icgc.dcc.repository.tcga.core;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.val;
+
+public class TCGAArchiveCrawlerTest {
+
+  /**
+   * Constants.
+   */
+  private static final String CLINICAL_PAGE = "<html><body><pre>"
+      + "<a href=\"?C=N;O=D\">Name</a>                    <a href=\"?C=M;O=A\">Last modified</a>      "
+      + "<a href=\"?C=S;O=A\">Size</a>\n"
+      + "<hr><a href=\"/bio/\">Parent Directory</a>                             -   \n"
+      + "<a href=\"MANIFEST.txt\">MANIFEST.txt</a>                 2014-07-09 10:18  345   \n"
+      + "<a href=\"org_clinical.TCGA-AA-0001.xml\">org_clinical.TCGA-AA-0001.xml</a> 2014-07-09 10:18   12K  \n"
+      + "<a href=\"org_biospecimen.TCGA-AA-0001.xml\">org_biospecimen.TCGA-AA-0001.xml</a> 2014-07-09 10:18 9K\n"
+      + "<hr></pre></body></html>";
+  private static final String EMPTY_PAGE = "<html><body><pre>"
+      + "<a href=\"MANIFEST.txt\">MANIFEST.txt</a>                 2014-07-09 10:18  345   \n"
+      + "</pre></body></html>";
+  private static final String MANIFEST = "abc123  org_clinical.TCGA-AA-0001.xml\n"
+      + "def456  org_biospecimen.TCGA-AA-0001.xml\n";
+
+  /**
+   * State.
+   */
+  private HttpServer server;
+  private final ConcurrentMap<String, AtomicInteger> requests = Maps.newConcurrentMap();
+  private final AtomicInteger failures = new AtomicInteger();
+
+  @Before
+  public void setUp() throws Exception {
+    val responses = ImmutableMap.of(
+        "/clinical.1", CLINICAL_PAGE,
+        "/clinical.1/MANIFEST.txt", MANIFEST,
+        "/other.1", EMPTY_PAGE,
+        "/other.1/MANIFEST.txt", MANIFEST);
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", exchange -> {
+      val path = exchange.getRequestURI().getPath();
+      requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+
+      val body = responses.get(path);
+      val unavailable = path.equals("/clinical.1") && failures.getAndDecrement() > 0;
+      val status = unavailable ? 503 : body == null ? 404 : 200;
+      val bytes = (body == null || unavailable ? "" : body).getBytes(UTF_8);
+
+      exchange.getResponseHeaders().set("Content-Type", path.endsWith(".txt") ? "text/plain" : "text/html");
+      exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+      exchange.getResponseBody().write(bytes);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testCrawl() {
+    // Fail the first page request to exercise retries
+    failures.set(1);
+
+    val clinicalUrl = getUrl("/clinical.1.tar.gz");
+    val otherUrl = getUrl("/other.1.tar.gz");
+    val crawler = new TCGAArchiveCrawler().threadCount(2).hostConcurrency(1).retryDelayMs(1);
+    val results = crawler.crawl(ImmutableList.of(clinicalUrl, otherUrl));
+
+    assertThat(results.keySet()).containsExactly(clinicalUrl, otherUrl);
+    assertThat(results.get(otherUrl)).isEmpty();
+    assertThat(requests.get("/clinical.1").get()).isEqualTo(2);
+
+    val clinicalFiles = results.get(clinicalUrl);
+    assertThat(clinicalFiles).hasSize(1);
+
+    val clinicalFile = clinicalFiles.get(0);
+    assertThat(clinicalFile.getDonorId()).isEqualTo("TCGA-AA-0001");
+    assertThat(clinicalFile.getFileName()).isEqualTo("org_clinical.TCGA-AA-0001.xml");
+    assertThat(clinicalFile.getFileSize()).isEqualTo(12 * 1024L);
+    assertThat(clinicalFile.getFileMd5()).isEqualTo("abc123");
+    assertThat(clinicalFile.getUrl()).isEqualTo(getUrl("/clinical.1/org_clinical.TCGA-AA-0001.xml"));
+
+    // Manifests are only fetched for archives with clinical files
+    assertThat(requests.get("/other.1/MANIFEST.txt")).isNull();
+  }
+
+  private String getUrl(String path) {
+    return "http://localhost:" + server.getAddress().getPort() + path;
+  }
+
+}
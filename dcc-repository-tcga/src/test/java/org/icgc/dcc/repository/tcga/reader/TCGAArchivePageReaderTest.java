@@ -17,17 +17,49 @@
  */
 package org.icgc.dcc.repository.tcga.reader;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.icgc.dcc.repository.tcga.model.TCGAArchivePageEntry;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.common.io.Resources;
+
 import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@Ignore("For development only")
 public class TCGAArchivePageReaderTest {
 
   @Test
+  public void testReadEntriesFixture() {
+    val url = Resources.getResource("fixtures/archive-page.html").toString();
+    val entries = TCGAArchivePageReader.readEntries(url);
+
+    assertThat(entries).containsExactly(
+        entry("MANIFEST.txt", 4 * 1024L, "2014-07-09T10:18"),
+        entry("nationwidechildrens.org_biospecimen.TCGA-2W-A8YY.xml", 45 * 1024L, "2014-07-09T10:18"),
+        entry("nationwidechildrens.org_clinical.TCGA-2W-A8YY.xml", 38 * 1024L, "2014-07-09T10:18"),
+        entry("nationwidechildrens.org_clinical.TCGA-4J-AA1J.xml", 912L, "2014-07-09T10:19"),
+        entry("images/", null, "2014-07-09T10:20"));
+  }
+
+  @Test
+  public void testReadEntriesIgnoresLinkText() throws IOException {
+    val page = "<pre><a href=\"file.xml\">2014-07-09 10:18  1K</a>  2014-07-09 10:19  2K\n</pre>";
+    val entries = TCGAArchivePageReader.readEntries(new StringReader(page));
+
+    assertThat(entries).containsExactly(entry("file.xml", 2 * 1024L, "2014-07-09T10:19"));
+  }
+
+  @Test
+  @Ignore("For development only")
   public void testReadEntries() {
     val url =
         "https://tcga-data.nci.nih.gov/tcgafiles/ftp_auth/distro_ftpusers/anonymous/tumor/cesc/bcr/nationwidechildrens.org/bio/clin/nationwidechildrens.org_CESC.bio.Level_1.200.62.0";
@@ -37,4 +69,9 @@ public class TCGAArchivePageReaderTest {
     }
   }
 
+  private static TCGAArchivePageEntry entry(String fileName, Long fileSize, String lastModified) {
+    val instant = ZonedDateTime.of(LocalDateTime.parse(lastModified), ZoneId.systemDefault()).toInstant();
+    return new TCGAArchivePageEntry(fileName, fileSize, instant);
+  }
+
 }